@@ -0,0 +1,152 @@
+package org.traccar;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * UDP flood against a datagram listener bound the same way as {@link TrackerServer} does it. Several threads send
+ * small datagrams from their own sockets and wait until the server has received them. The server only counts
+ * datagrams, so the score reflects socket and event loop throughput rather than decoding. Datagrams that are dropped
+ * by the kernel stall the sender until a timeout, so losses lower the score. Native transport and multiple
+ * SO_REUSEPORT sockets are only used on Linux when the epoll library is available.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class DatagramServerBenchmark {
+
+    private static final int BATCH_SIZE = 64;
+    private static final long TIMEOUT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final byte[] MESSAGE = "$GPRMC,123519,A,4807.038,N,01131.000,E,022.4,084.4,230394,003.1,W*6A"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    @Param({"false", "true"})
+    public boolean nativeTransport;
+
+    @Param({"1", "4"})
+    public int channels;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong lost = new AtomicLong();
+
+    private EventLoopGroupFactory eventLoopGroupFactory;
+    private ChannelGroup channelGroup;
+    private InetSocketAddress endpoint;
+
+    @ChannelHandler.Sharable
+    private final class CountingHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            received.incrementAndGet();
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sender {
+
+        private DatagramChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.wrap(MESSAGE);
+
+        @Setup
+        public void setup(DatagramServerBenchmark server) throws IOException {
+            channel = DatagramChannel.open();
+            channel.connect(server.endpoint);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            channel.close();
+        }
+
+    }
+
+    @Setup
+    public void setup() {
+        Config config = new Config();
+        config.setString(Keys.SERVER_NETTY_NATIVE, String.valueOf(nativeTransport));
+        eventLoopGroupFactory = new EventLoopGroupFactory(config);
+        int count = eventLoopGroupFactory.isNative() ? channels : 1;
+
+        Bootstrap bootstrap = new Bootstrap()
+                .group(eventLoopGroupFactory.getWorkerGroup())
+                .channel(eventLoopGroupFactory.getDatagramChannelClass())
+                .handler(new CountingHandler());
+        if (count > 1) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+
+        channelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+        endpoint = new InetSocketAddress("127.0.0.1", 0);
+        for (int i = 0; i < count; i++) {
+            var channel = bootstrap.bind(endpoint).syncUninterruptibly().channel();
+            endpoint = (InetSocketAddress) channel.localAddress();
+            channelGroup.add(channel);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        channelGroup.close().awaitUninterruptibly();
+        eventLoopGroupFactory.getBossGroup().shutdownGracefully();
+        eventLoopGroupFactory.getWorkerGroup().shutdownGracefully().syncUninterruptibly();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void flood(Sender sender) throws IOException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            sender.channel.write(sender.buffer.rewind());
+        }
+        long expected = sent.addAndGet(BATCH_SIZE);
+        long deadline = System.nanoTime() + TIMEOUT;
+        while (received.get() + lost.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                lost.addAndGet(Math.max(expected - received.get() - lost.get(), 0));
+                break;
+            }
+            LockSupport.parkNanos(1000);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.traccar;
+
+import com.google.inject.Injector;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.NotificationManager;
+import org.traccar.handler.BasePositionHandler;
+import org.traccar.handler.DatabaseHandler;
+import org.traccar.handler.PostProcessHandler;
+import org.traccar.helper.PositionLogger;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Contention on per-device processing queues. Several threads push positions through the processing handler with a
+ * single pass-through position handler, so queue bookkeeping dominates. Everything runs inline on the calling thread.
+ * With one device all threads compete for the same queue; with many devices they should not interfere.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ProcessingQueueBenchmark {
+
+    @Param({"1", "64", "10000"})
+    public int devices;
+
+    private ProcessingHandler handler;
+    private ChannelHandlerContext context;
+
+    @Setup
+    public void setup() throws Exception {
+        BasePositionHandler positionHandler = new BasePositionHandler() {
+            @Override
+            public void onPosition(Position position, Callback callback) {
+                callback.processed(false);
+            }
+        };
+        PostProcessHandler postProcessHandler = mock(PostProcessHandler.class, withSettings().stubOnly());
+        doAnswer(invocation -> {
+            invocation.getArgument(1, BasePositionHandler.Callback.class).processed(false);
+            return null;
+        }).when(postProcessHandler).handlePosition(any(), any());
+
+        Injector injector = mock(Injector.class, withSettings().stubOnly());
+        doReturn(positionHandler).when(injector).getInstance(DatabaseHandler.class);
+        doReturn(postProcessHandler).when(injector).getInstance(PostProcessHandler.class);
+
+        context = mock(ChannelHandlerContext.class, withSettings().stubOnly());
+        when(context.executor()).thenReturn(ImmediateEventExecutor.INSTANCE);
+
+        Config config = new Config();
+        config.setString(Keys.SERVER_BUFFERING_THRESHOLD, "0");
+        handler = new ProcessingHandler(
+                injector, config,
+                mock(CacheManager.class, withSettings().stubOnly()),
+                mock(NotificationManager.class, withSettings().stubOnly()),
+                mock(PositionLogger.class, withSettings().stubOnly()),
+                new ProcessingExecutor(config), new ProcessingMetrics());
+    }
+
+    @Benchmark
+    public void process() throws Exception {
+        Position position = new Position();
+        position.setDeviceId(ThreadLocalRandom.current().nextInt(devices));
+        handler.channelRead(context, position);
+    }
+
+}
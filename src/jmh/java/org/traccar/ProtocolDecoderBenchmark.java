@@ -0,0 +1,158 @@
+package org.traccar;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.traccar.config.Config;
+import org.traccar.database.CommandsManager;
+import org.traccar.database.MediaManager;
+import org.traccar.database.StatisticsManager;
+import org.traccar.helper.DataConverter;
+import org.traccar.model.Device;
+import org.traccar.protocol.Gl200TextProtocolDecoder;
+import org.traccar.protocol.Gt06ProtocolDecoder;
+import org.traccar.protocol.H02ProtocolDecoder;
+import org.traccar.protocol.HuabaoProtocolDecoder;
+import org.traccar.protocol.SuntechProtocolDecoder;
+import org.traccar.protocol.TeltonikaProtocolDecoder;
+import org.traccar.session.ConnectionManager;
+import org.traccar.session.DeviceSession;
+import org.traccar.session.cache.CacheManager;
+
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Decoder throughput using sample frames from protocol tests. Each frame decodes into exactly one position, so with
+ * the GC profiler enabled "gc.alloc.rate.norm" is the number of bytes allocated per decoded position. Decoder
+ * dependencies are stub-only mocks created once, and every lookup returns the same device session, so the score
+ * doesn't include mocking overhead.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProtocolDecoderBenchmark {
+
+    @Param({"gt06", "teltonika", "huabao", "gl200", "suntech", "h02"})
+    public String protocol;
+
+    private BaseProtocolDecoder decoder;
+    private ByteBuf[] frames;
+    private int index;
+
+    private Config config;
+    private CacheManager cacheManager;
+    private ConnectionManager connectionManager;
+
+    private <T extends BaseProtocolDecoder> T inject(T decoder) {
+        decoder.setConfig(config);
+        decoder.setCacheManager(cacheManager);
+        decoder.setConnectionManager(connectionManager);
+        decoder.setStatisticsManager(mock(StatisticsManager.class, withSettings().stubOnly()));
+        decoder.setMediaManager(mock(MediaManager.class, withSettings().stubOnly()));
+        decoder.setCommandsManager(mock(CommandsManager.class, withSettings().stubOnly()));
+        return decoder;
+    }
+
+    private static ByteBuf binary(String data) {
+        return Unpooled.wrappedBuffer(DataConverter.parseHex(data));
+    }
+
+    private static ByteBuf buffer(String data) {
+        return Unpooled.copiedBuffer(data, StandardCharsets.ISO_8859_1);
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        config = new Config();
+        Device device = new Device();
+        device.setId(1);
+        device.setUniqueId("123456789012345");
+        cacheManager = mock(CacheManager.class, withSettings().stubOnly());
+        when(cacheManager.getConfig()).thenReturn(config);
+        when(cacheManager.getObject(eq(Device.class), anyLong())).thenReturn(device);
+        DeviceSession deviceSession = new DeviceSession(
+                1L, device.getUniqueId(), null, mock(Protocol.class, withSettings().stubOnly()),
+                mock(Channel.class, withSettings().stubOnly()), mock(SocketAddress.class, withSettings().stubOnly()));
+        connectionManager = mock(ConnectionManager.class, withSettings().stubOnly());
+        when(connectionManager.getDeviceSession(any(), any(), any(), any(String[].class))).thenReturn(deviceSession);
+
+        switch (protocol) {
+            case "gt06" -> {
+                decoder = inject(new Gt06ProtocolDecoder(null));
+                decoder.decode(null, null, binary(
+                        "78780D01086471700328358100093F040D0A"));
+                frames = new ByteBuf[] {
+                        binary("7979003e3819050e0e0c26c5010fd98e0905f53000ccab0e000302c80100000c240000000000048b08001b002e04000015c4003b020000003c0401020001021f60220d0a"),
+                        binary("787840a2180b0f0f3407cf00602cd208354064001c6a02dc650000698100000000095674c9114100002a04000100004b31000000000863829079286793020001a22a8f0d0a"),
+                        binary("78781511170103100e1f9904efe30400a97f88003410ffdd000d0a")};
+            }
+            case "teltonika" -> {
+                decoder = inject(new TeltonikaProtocolDecoder(null, false));
+                decoder.decode(null, null, binary(
+                        "000F313233343536373839303132333435"));
+                frames = new ByteBuf[] {
+                        binary("00000000000000728e010000018b23dd796300fbf7263c24f9e11a0000000000000002240001000000000000000000010224004501210001e50110cde39f7e42bb55aa788e4a29ed650055020ab70a8f264c6000ffff6b210001b00110f89b907e42bb55aaa3463b29ed650055020ab708bb2600ae0500096c01000051d4"),
+                        binary("00000000000000a28e0100000183ac617e3001123eb99b1e142db4000000000000000000001d000900f000005000001503004500011e1801212d01242a012722012a18001100b5000000b600000018000000cd151000431c2d011f6981012047d701226981012347d901256981012647d8012869810129e6f304b0000304b1000304b2000304b30003000100f10000639d0002000b0000000214bf12fe000e0000000029d18c95000001000051b6")};
+            }
+            case "huabao" -> {
+                decoder = inject(new HuabaoProtocolDecoder(null));
+                frames = new ByteBuf[] {
+                        binary("7e55018c378580120300032a06052117594022348474113550560705981e0400000002370ac30c0c28660308000000100101020200000a0301cc000c0600a2ffa7ff5e1b7e"),
+                        binary("7e0900001f4f07788ef87d000cf0230223150215010203013800000c000b029dc58c04b99b60230223171822507e")};
+            }
+            case "gl200" -> {
+                decoder = inject(new Gl200TextProtocolDecoder(null));
+                frames = new ByteBuf[] {
+                        buffer("+RESP:GTFRI,5E0100,862061048023666,,,12940,10,1,1,0.0,97,179.8,-90.366478,38.735379,20230616183231,0310,0410,6709,03ADF710,00,6223.7,,,,,110000,,,,202306161834$"),
+                        buffer("+RESP:GTFRI,5E0100,861971050039361,,,,10,1,1,10.4,140,196.9,-80.709946,35.016525,20220302220944,0310,0260,1CE9,52A1,00,0.0,,,,,420000,,,,20220302220948,1B0B$")};
+            }
+            case "suntech" -> {
+                decoder = inject(new SuntechProtocolDecoder(null));
+                frames = new ByteBuf[] {
+                        buffer("ALT;0840037569;FFFFFF;84;1.0.6;0;20221228;11:33:05;00004490;724;11;05D3;33;-22.845935;-46.322000;0.00;0.00;18;0;00000001;00000000;99;;;;08E3800F;4.1;12.37;0;0;0;0;4;;;;"),
+                        buffer("BLE;1140000053;114;1.0.1;20211001;17:27:09;+28.433465;-82.565891;1;-43;-46;-41;ACB89523EF68;247;0;0")};
+            }
+            case "h02" -> {
+                decoder = inject(new H02ProtocolDecoder(null));
+                frames = new ByteBuf[] {
+                        buffer("*HQ,4970105243,V1,104000,A,2235.1777,N,11357.8913,E,000.27,235,130721,FFFFFBFF,460,11,d18e105,7752,6#"),
+                        binary("2491802711800850240512192350143206090249758e000001ffffbbff00bdf0900000000001d60161cc4b9a35")};
+            }
+            default -> throw new IllegalArgumentException("Unknown protocol " + protocol);
+        }
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        ByteBuf frame = frames[index];
+        index = (index + 1) % frames.length;
+        frame.readerIndex(0);
+        return decoder.decode(null, null, frame);
+    }
+
+}
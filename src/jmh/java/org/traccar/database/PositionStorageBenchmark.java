@@ -0,0 +1,113 @@
+package org.traccar.database;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.traccar.MainModule;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.storage.DatabaseModule;
+import org.traccar.storage.DatabaseStorage;
+import org.traccar.storage.PermissionClosure;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Position insert throughput of single statements compared to one batched statement. Scores are positions per second.
+ * The schema is created with the project changelog. By default, an in-memory H2 database is used. To measure
+ * PostgreSQL, override the connection parameters, for example
+ * {@code -p url=jdbc:postgresql://localhost/traccar -p user=traccar -p password=traccar}.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PositionStorageBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+    public String url;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    private DataSource dataSource;
+    private DatabaseStorage storage;
+    private List<Position> positions;
+
+    @Setup
+    public void setup() throws Exception {
+        Config config = new Config();
+        config.setString(Keys.DATABASE_URL, url);
+        config.setString(Keys.DATABASE_USER, user);
+        config.setString(Keys.DATABASE_PASSWORD, password);
+        config.setString(Keys.DATABASE_CHANGELOG, "./schema/changelog-master.xml");
+        dataSource = DatabaseModule.provideDataSource(config);
+        storage = new DatabaseStorage(
+                config, dataSource, MainModule.provideObjectMapper(), new PermissionClosure(null));
+
+        Device device = new Device();
+        device.setName("benchmark");
+        device.setUniqueId(String.valueOf(System.nanoTime()));
+        long deviceId = storage.addObject(device, new Request(new Columns.Exclude("id")));
+
+        positions = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Position position = new Position("benchmark");
+            position.setDeviceId(deviceId);
+            position.setTime(new Date());
+            position.setValid(true);
+            position.setLatitude(10 + i * 0.001);
+            position.setLongitude(20 + i * 0.001);
+            position.set(Position.KEY_IGNITION, true);
+            positions.add(position);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((HikariDataSource) dataSource).close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void single() throws Exception {
+        for (Position position : positions) {
+            storage.addObject(position, new Request(new Columns.Exclude("id")));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] batch() throws Exception {
+        return storage.addObjects(positions, new Request(new Columns.Exclude("id")));
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.traccar.geocoder;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Burst of asynchronous reverse geocoding lookups against a local stub server with fixed response delay. Lookups are
+ * spread over a few grid cells, like many vehicles arriving at the same depot. Provider requests per burst are
+ * reported as a secondary result.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeocoderBenchmark {
+
+    private static final int BURST = 200;
+    private static final int CELLS = 10;
+    private static final int DELAY = 20;
+
+    private static final byte[] RESPONSE = ("{\"display_name\":\"Test\",\"address\":{\"road\":\"Main Street\","
+            + "\"city\":\"Springfield\",\"country_code\":\"us\"}}").getBytes(StandardCharsets.UTF_8);
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long requests;
+    }
+
+    @Param({"direct", "async"})
+    public String mode;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private Client client;
+    private Geocoder geocoder;
+
+    @Setup
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(RESPONSE);
+            }
+        });
+        server.start();
+
+        client = ClientBuilder.newClient();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/reverse";
+        geocoder = new NominatimGeocoder(client, url, null, null, new AddressFormat());
+        if (mode.equals("async")) {
+            Config config = new Config();
+            config.setString(Keys.GEOCODER_THREADS, "8");
+            config.setString(Keys.GEOCODER_QUEUE_SIZE, String.valueOf(BURST));
+            geocoder = new AsyncGeocoder(config, geocoder);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Benchmark
+    public void burst(Counters counters) throws InterruptedException {
+        int before = requests.get();
+        CountDownLatch latch = new CountDownLatch(BURST);
+        Geocoder.ReverseGeocoderCallback callback = new Geocoder.ReverseGeocoderCallback() {
+            @Override
+            public void onSuccess(String address) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                latch.countDown();
+            }
+        };
+        for (int i = 0; i < BURST; i++) {
+            int cell = i % CELLS;
+            geocoder.getAddress(40 + cell * 0.01 + i * 1e-7, -74 + cell * 0.01, callback);
+        }
+        latch.await();
+        counters.requests += requests.get() - before;
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.traccar.geofence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.traccar.model.Geofence;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geofence matching for a single position against randomly placed polygons, comparing full scan with the index.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeofenceIndexBenchmark {
+
+    private static final int POINT_COUNT = 1024;
+
+    @Param({"10000"})
+    public int count;
+
+    private List<Geofence> geofences;
+    private GeofenceIndex geofenceIndex;
+    private double[] latitudes;
+    private double[] longitudes;
+    private int index;
+
+    @Setup
+    public void setup() throws ParseException {
+        Random random = new Random(1);
+        geofences = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double lat = 50 + random.nextDouble() * 5;
+            double lon = 10 + random.nextDouble() * 5;
+            double radius = 0.005 + random.nextDouble() * 0.02;
+            int vertices = 5 + random.nextInt(20);
+            StringBuilder wkt = new StringBuilder("POLYGON ((");
+            for (int j = 0; j < vertices; j++) {
+                double angle = 2 * Math.PI * j / vertices;
+                if (j > 0) {
+                    wkt.append(", ");
+                }
+                wkt.append(lat + radius * Math.sin(angle)).append(' ').append(lon + radius * Math.cos(angle));
+            }
+            wkt.append("))");
+            Geofence geofence = new Geofence();
+            geofence.setId(i);
+            geofence.setGeometry(new GeofencePolygon(wkt.toString()));
+            geofences.add(geofence);
+        }
+        geofenceIndex = new GeofenceIndex(null, geofences);
+
+        latitudes = new double[POINT_COUNT];
+        longitudes = new double[POINT_COUNT];
+        for (int i = 0; i < POINT_COUNT; i++) {
+            latitudes[i] = 50 + random.nextDouble() * 5;
+            longitudes[i] = 10 + random.nextDouble() * 5;
+        }
+    }
+
+    @Benchmark
+    public List<Long> scan() {
+        int i = index++ & (POINT_COUNT - 1);
+        List<Long> result = new ArrayList<>();
+        for (Geofence geofence : geofences) {
+            if (geofence.getGeometry().containsPoint(null, geofence, latitudes[i], longitudes[i])) {
+                result.add(geofence.getId());
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Long> index() {
+        int i = index++ & (POINT_COUNT - 1);
+        return geofenceIndex.getGeofenceIds(null, latitudes[i], longitudes[i]);
+    }
+
+}
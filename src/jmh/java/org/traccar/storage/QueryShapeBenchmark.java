@@ -0,0 +1,131 @@
+package org.traccar.storage;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.traccar.MainModule;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
+import org.traccar.storage.query.Request;
+
+import javax.sql.DataSource;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the most frequent query shapes with changing values: device lookup by id, position history for a
+ * device and position id update. SQL text is built once per shape, so these measure statement preparation and
+ * execution. Driver statement caching only applies to MySQL, MariaDB and PostgreSQL. To measure it, override the
+ * connection parameters, for example
+ * {@code -p url=jdbc:postgresql://localhost/traccar -p user=traccar -p password=traccar}.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryShapeBenchmark {
+
+    private static final int DEVICES = 100;
+
+    @Param("jdbc:h2:mem:queries;DB_CLOSE_DELAY=-1")
+    public String url;
+
+    @Param("sa")
+    public String user;
+
+    @Param("")
+    public String password;
+
+    @Param({"0", "250"})
+    public int statementCacheSize;
+
+    private DataSource dataSource;
+    private DatabaseStorage storage;
+    private long[] deviceIds;
+    private int index;
+
+    @Setup
+    public void setup() throws Exception {
+        Config config = new Config();
+        config.setString(Keys.DATABASE_URL, url);
+        config.setString(Keys.DATABASE_USER, user);
+        config.setString(Keys.DATABASE_PASSWORD, password);
+        config.setString(Keys.DATABASE_CHANGELOG, "./schema/changelog-master.xml");
+        config.setString(Keys.DATABASE_STATEMENT_CACHE_SIZE, String.valueOf(statementCacheSize));
+        dataSource = DatabaseModule.provideDataSource(config);
+        storage = new DatabaseStorage(
+                config, dataSource, MainModule.provideObjectMapper(), new PermissionClosure(null));
+
+        deviceIds = new long[DEVICES];
+        String prefix = String.valueOf(System.nanoTime());
+        for (int i = 0; i < DEVICES; i++) {
+            Device device = new Device();
+            device.setName("benchmark");
+            device.setUniqueId(prefix + i);
+            deviceIds[i] = storage.addObject(device, new Request(new Columns.Exclude("id")));
+
+            Position position = new Position("benchmark");
+            position.setDeviceId(deviceIds[i]);
+            position.setTime(new Date());
+            storage.addObject(position, new Request(new Columns.Exclude("id")));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((HikariDataSource) dataSource).close();
+    }
+
+    private long nextDeviceId() {
+        index = (index + 1) % deviceIds.length;
+        return deviceIds[index];
+    }
+
+    @Benchmark
+    public Device selectDevice() throws Exception {
+        return storage.getObject(Device.class, new Request(
+                new Columns.All(), new Condition.Equals("id", nextDeviceId())));
+    }
+
+    @Benchmark
+    public List<Position> selectPositions() throws Exception {
+        Date to = new Date();
+        Date from = new Date(to.getTime() - TimeUnit.DAYS.toMillis(1));
+        return storage.getObjects(Position.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Equals("deviceId", nextDeviceId()),
+                        new Condition.Between("fixTime", from, to)),
+                new Order("fixTime")));
+    }
+
+    @Benchmark
+    public void updateDevice() throws Exception {
+        Device device = new Device();
+        device.setId(nextDeviceId());
+        device.setPositionId(index);
+        storage.updateObject(device, new Request(
+                new Columns.Include("positionId"), new Condition.Equals("id", device.getId())));
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.util.concurrent.EventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+public class BackpressureManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackpressureManager.class);
+
+    public interface Callback {
+        void onAccepted(ChannelHandlerContext context, Position position);
+    }
+
+    private record Entry(ChannelHandlerContext context, Position position) {
+    }
+
+    private final Callback callback;
+    private final IntSupplier externalPending;
+    private final int highWatermark;
+    private final int lowWatermark;
+    private final int loopHighWatermark;
+    private final int loopLowWatermark;
+    private final boolean spoolDatagrams;
+    private final int spoolSize;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<EventExecutor, AtomicInteger> loopInFlight = new ConcurrentHashMap<>();
+    private final Set<Channel> paused = ConcurrentHashMap.newKeySet();
+    private final Queue<Entry> spool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger spooled = new AtomicInteger();
+
+    /**
+     * @param externalPending number of positions still pending outside of the processing pipeline, counted against
+     *                        the global watermarks
+     */
+    public BackpressureManager(Config config, Callback callback, IntSupplier externalPending) {
+        this.callback = callback;
+        this.externalPending = externalPending;
+        highWatermark = config.getInteger(Keys.SERVER_BACKPRESSURE_HIGH_WATERMARK);
+        lowWatermark = config.getInteger(Keys.SERVER_BACKPRESSURE_LOW_WATERMARK, highWatermark / 2);
+        loopHighWatermark = config.getInteger(Keys.SERVER_BACKPRESSURE_LOOP_HIGH_WATERMARK);
+        loopLowWatermark = config.getInteger(Keys.SERVER_BACKPRESSURE_LOOP_LOW_WATERMARK, loopHighWatermark / 2);
+        spoolDatagrams = config.getString(Keys.SERVER_BACKPRESSURE_DATAGRAM_POLICY).equals("spool");
+        spoolSize = config.getInteger(Keys.SERVER_BACKPRESSURE_SPOOL_SIZE);
+    }
+
+    private boolean enabled() {
+        return highWatermark > 0 || loopHighWatermark > 0;
+    }
+
+    private AtomicInteger getLoopCounter(Channel channel) {
+        return loopInFlight.computeIfAbsent(channel.eventLoop(), key -> new AtomicInteger());
+    }
+
+    private int getPending() {
+        return inFlight.get() + externalPending.getAsInt();
+    }
+
+    private boolean overloaded(Channel channel) {
+        return highWatermark > 0 && getPending() >= highWatermark
+                || loopHighWatermark > 0 && getLoopCounter(channel).get() >= loopHighWatermark;
+    }
+
+    private boolean relieved(Channel channel) {
+        return (highWatermark <= 0 || getPending() <= lowWatermark)
+                && (loopHighWatermark <= 0 || getLoopCounter(channel).get() <= loopLowWatermark);
+    }
+
+    private void process(ChannelHandlerContext context, Position position) {
+        inFlight.incrementAndGet();
+        getLoopCounter(context.channel()).incrementAndGet();
+        callback.onAccepted(context, position);
+    }
+
+    public void accept(ChannelHandlerContext context, Position position) {
+        if (!enabled()) {
+            callback.onAccepted(context, position);
+            return;
+        }
+        Channel channel = context.channel();
+        if (channel instanceof DatagramChannel) {
+            if (overloaded(channel)) {
+                if (spoolDatagrams && spooled.incrementAndGet() <= spoolSize) {
+                    spool.offer(new Entry(context, position));
+                } else {
+                    if (spoolDatagrams) {
+                        spooled.decrementAndGet();
+                    }
+                    LOGGER.debug("Position dropped due to backpressure");
+                }
+                return;
+            }
+        } else if (overloaded(channel) && channel.config().isAutoRead()) {
+            channel.config().setAutoRead(false);
+            paused.add(channel);
+        }
+        process(context, position);
+    }
+
+    /**
+     * Release position accepted earlier. Must be called exactly once for every accepted position, whether it was
+     * processed successfully or not.
+     */
+    public void release(ChannelHandlerContext context) {
+        if (!enabled()) {
+            return;
+        }
+        inFlight.decrementAndGet();
+        getLoopCounter(context.channel()).decrementAndGet();
+        update();
+    }
+
+    /**
+     * Resume paused channels and process spooled positions if the load dropped below the low watermarks. Has to be
+     * called when external pending work completes.
+     */
+    public void update() {
+        if (!enabled()) {
+            return;
+        }
+        if (!paused.isEmpty()) {
+            for (Channel channel : paused) {
+                if (relieved(channel) && paused.remove(channel)) {
+                    channel.config().setAutoRead(true);
+                }
+            }
+        }
+
+        while (spooled.get() > 0) {
+            Entry entry = spool.peek();
+            if (entry == null || !relieved(entry.context().channel()) || !spool.remove(entry)) {
+                break;
+            }
+            spooled.decrementAndGet();
+            process(entry.context(), entry.position());
+        }
+    }
+
+    /**
+     * Forget closed channel, so it's not kept in the paused set.
+     */
+    public void remove(Channel channel) {
+        paused.remove(channel);
+    }
+
+}
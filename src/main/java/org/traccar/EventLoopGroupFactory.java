@@ -16,28 +16,54 @@
 package org.traccar;
 
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.IoHandlerFactory;
 import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollIoHandler;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
 
 @Singleton
 public class EventLoopGroupFactory {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopGroupFactory.class);
+
+    private final boolean nativeTransport;
     private final EventLoopGroup bossGroup;
     private final EventLoopGroup workerGroup;
 
     @Inject
     public EventLoopGroupFactory(Config config) {
-        var ioHandlerFactory = NioIoHandler.newFactory();
+        boolean nativeRequested = config.getBoolean(Keys.SERVER_NETTY_NATIVE);
+        nativeTransport = nativeRequested && Epoll.isAvailable();
+        if (nativeRequested && !nativeTransport) {
+            LOGGER.warn("Native transport is not available, using NIO", Epoll.unavailabilityCause());
+        }
+        IoHandlerFactory ioHandlerFactory = nativeTransport ? EpollIoHandler.newFactory() : NioIoHandler.newFactory();
         bossGroup = new MultiThreadIoEventLoopGroup(
                 config.getInteger(Keys.SERVER_NETTY_BOSS_THREADS), ioHandlerFactory);
         workerGroup = new MultiThreadIoEventLoopGroup(
                 config.getInteger(Keys.SERVER_NETTY_WORKER_THREADS), ioHandlerFactory);
     }
 
+    public boolean isNative() {
+        return nativeTransport;
+    }
+
     public EventLoopGroup getBossGroup() {
         return bossGroup;
     }
@@ -46,4 +72,16 @@ public class EventLoopGroupFactory {
         return workerGroup;
     }
 
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return nativeTransport ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public Class<? extends SocketChannel> getSocketChannelClass() {
+        return nativeTransport ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public Class<? extends DatagramChannel> getDatagramChannelClass() {
+        return nativeTransport ? EpollDatagramChannel.class : NioDatagramChannel.class;
+    }
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2012 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2012 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,11 @@ import com.google.inject.ProvisionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.broadcast.BroadcastService;
+import org.traccar.database.DeviceStateWriter;
+import org.traccar.database.PositionBatchWriter;
+import org.traccar.database.PositionJournal;
 import org.traccar.schedule.ScheduleManager;
+import org.traccar.session.cache.CacheManager;
 import org.traccar.storage.DatabaseModule;
 import org.traccar.web.WebModule;
 import org.traccar.web.WebServer;
@@ -121,7 +125,8 @@ public final class Main {
 
             var services = new ArrayList<LifecycleObject>();
             for (var clazz : List.of(
-                    ScheduleManager.class, ServerManager.class, WebServer.class, BroadcastService.class)) {
+                    ScheduleManager.class, PositionJournal.class, CacheManager.class, ServerManager.class,
+                    PositionBatchWriter.class, DeviceStateWriter.class, WebServer.class, BroadcastService.class)) {
                 var service = injector.getInstance(clazz);
                 if (service != null) {
                     service.start();
@@ -51,8 +51,10 @@ import org.traccar.forward.PositionForwarderUrl;
 import org.traccar.forward.PositionForwarderMqtt;
 import org.traccar.forward.PositionForwarderWialon;
 import org.traccar.geocoder.AddressFormat;
+import org.traccar.geocoder.AsyncGeocoder;
 import org.traccar.geocoder.BanGeocoder;
 import org.traccar.geocoder.BingMapsGeocoder;
+import org.traccar.geocoder.CachingGeocoder;
 import org.traccar.geocoder.FactualGeocoder;
 import org.traccar.geocoder.GeoapifyGeocoder;
 import org.traccar.geocoder.GeocodeFarmGeocoder;
@@ -68,10 +70,12 @@ import org.traccar.geocoder.MapboxGeocoder;
 import org.traccar.geocoder.MapmyIndiaGeocoder;
 import org.traccar.geocoder.NominatimGeocoder;
 import org.traccar.geocoder.OpenCageGeocoder;
+import org.traccar.geocoder.PersistentGeocoder;
 import org.traccar.geocoder.PositionStackGeocoder;
 import org.traccar.geocoder.PlusCodesGeocoder;
 import org.traccar.geocoder.TomTomGeocoder;
 import org.traccar.geocoder.GeocodeJsonGeocoder;
+import org.traccar.geolocation.CachingGeolocationProvider;
 import org.traccar.geolocation.GeolocationProvider;
 import org.traccar.geolocation.GoogleGeolocationProvider;
 import org.traccar.geolocation.OpenCellIdGeolocationProvider;
@@ -93,6 +97,7 @@ import org.traccar.sms.HttpSmsClient;
 import org.traccar.sms.SmsManager;
 import org.traccar.sms.SnsSmsClient;
 import org.traccar.speedlimit.OverpassSpeedLimitProvider;
+import org.traccar.speedlimit.OverpassTileSpeedLimitProvider;
 import org.traccar.speedlimit.SpeedLimitProvider;
 import org.traccar.storage.DatabaseStorage;
 import org.traccar.storage.MemoryStorage;
@@ -207,7 +212,8 @@ public class MainModule extends AbstractModule {
 
     @Singleton
     @Provides
-    public static Geocoder provideGeocoder(Config config, Client client, StatisticsManager statisticsManager) {
+    public static Geocoder provideGeocoder(
+            Config config, Client client, StatisticsManager statisticsManager) throws IOException {
         if (config.getBoolean(Keys.GEOCODER_ENABLE)) {
             String type = config.getString(Keys.GEOCODER_TYPE);
             String url = config.getString(Keys.GEOCODER_URL);
@@ -216,29 +222,35 @@ public class MainModule extends AbstractModule {
             String formatString = config.getString(Keys.GEOCODER_FORMAT);
             AddressFormat addressFormat = formatString != null ? new AddressFormat(formatString) : new AddressFormat();
 
-            int cacheSize = config.getInteger(Keys.GEOCODER_CACHE_SIZE);
             Geocoder geocoder = switch (type) {
                 case "pluscodes" -> new PlusCodesGeocoder();
-                case "nominatim" -> new NominatimGeocoder(client, url, key, language, cacheSize, addressFormat);
-                case "locationiq" -> new LocationIqGeocoder(client, url, key, language, cacheSize, addressFormat);
-                case "gisgraphy" -> new GisgraphyGeocoder(client, url, cacheSize, addressFormat);
-                case "mapquest" -> new MapQuestGeocoder(client, url, key, cacheSize, addressFormat);
-                case "opencage" -> new OpenCageGeocoder(client, url, key, language, cacheSize, addressFormat);
-                case "bingmaps" -> new BingMapsGeocoder(client, url, key, cacheSize, addressFormat);
-                case "factual" -> new FactualGeocoder(client, url, key, cacheSize, addressFormat);
-                case "geocodefarm" -> new GeocodeFarmGeocoder(client, key, language, cacheSize, addressFormat);
-                case "geocodexyz" -> new GeocodeXyzGeocoder(client, key, cacheSize, addressFormat);
-                case "ban" -> new BanGeocoder(client, cacheSize, addressFormat);
-                case "here" -> new HereGeocoder(client, url, key, language, cacheSize, addressFormat);
-                case "mapmyindia" -> new MapmyIndiaGeocoder(client, url, key, cacheSize, addressFormat);
-                case "tomtom" -> new TomTomGeocoder(client, url, key, cacheSize, addressFormat);
-                case "positionstack" -> new PositionStackGeocoder(client, key, cacheSize, addressFormat);
-                case "mapbox" -> new MapboxGeocoder(client, key, cacheSize, addressFormat);
-                case "maptiler" -> new MapTilerGeocoder(client, key, cacheSize, addressFormat);
-                case "geoapify" -> new GeoapifyGeocoder(client, key, language, cacheSize, addressFormat);
-                case "geocodejson" -> new GeocodeJsonGeocoder(client, url, key, language, cacheSize, addressFormat);
-                default -> new GoogleGeocoder(client, url, key, language, cacheSize, addressFormat);
+                case "nominatim" -> new NominatimGeocoder(client, url, key, language, addressFormat);
+                case "locationiq" -> new LocationIqGeocoder(client, url, key, language, addressFormat);
+                case "gisgraphy" -> new GisgraphyGeocoder(client, url, addressFormat);
+                case "mapquest" -> new MapQuestGeocoder(client, url, key, addressFormat);
+                case "opencage" -> new OpenCageGeocoder(client, url, key, language, addressFormat);
+                case "bingmaps" -> new BingMapsGeocoder(client, url, key, addressFormat);
+                case "factual" -> new FactualGeocoder(client, url, key, addressFormat);
+                case "geocodefarm" -> new GeocodeFarmGeocoder(client, key, language, addressFormat);
+                case "geocodexyz" -> new GeocodeXyzGeocoder(client, key, addressFormat);
+                case "ban" -> new BanGeocoder(client, addressFormat);
+                case "here" -> new HereGeocoder(client, url, key, language, addressFormat);
+                case "mapmyindia" -> new MapmyIndiaGeocoder(client, url, key, addressFormat);
+                case "tomtom" -> new TomTomGeocoder(client, url, key, addressFormat);
+                case "positionstack" -> new PositionStackGeocoder(client, key, addressFormat);
+                case "mapbox" -> new MapboxGeocoder(client, key, addressFormat);
+                case "maptiler" -> new MapTilerGeocoder(client, key, addressFormat);
+                case "geoapify" -> new GeoapifyGeocoder(client, key, language, addressFormat);
+                case "geocodejson" -> new GeocodeJsonGeocoder(client, url, key, language, addressFormat);
+                default -> new GoogleGeocoder(client, url, key, language, addressFormat);
             };
+            geocoder = new AsyncGeocoder(config, geocoder);
+            if (config.hasKey(Keys.GEOCODER_CACHE_PATH)) {
+                geocoder = new PersistentGeocoder(config, geocoder);
+            }
+            if (config.getInteger(Keys.GEOCODER_CACHE_SIZE) > 0) {
+                geocoder = new CachingGeocoder(config, geocoder);
+            }
             geocoder.setStatisticsManager(statisticsManager);
             return geocoder;
         }
@@ -252,11 +264,15 @@ public class MainModule extends AbstractModule {
             String type = config.getString(Keys.GEOLOCATION_TYPE, "google");
             String url = config.getString(Keys.GEOLOCATION_URL);
             String key = config.getString(Keys.GEOLOCATION_KEY);
-            return switch (type) {
+            GeolocationProvider geolocationProvider = switch (type) {
                 case "opencellid" -> new OpenCellIdGeolocationProvider(client, url, key);
                 case "unwired" -> new UnwiredGeolocationProvider(client, url, key);
                 default -> new GoogleGeolocationProvider(client, key);
             };
+            if (config.getInteger(Keys.GEOLOCATION_CACHE_SIZE) > 0) {
+                geolocationProvider = new CachingGeolocationProvider(config, geolocationProvider);
+            }
+            return geolocationProvider;
         }
         return null;
     }
@@ -269,6 +285,7 @@ public class MainModule extends AbstractModule {
             String url = config.getString(Keys.SPEED_LIMIT_URL);
             return switch (type) {
                 case "overpass" -> new OverpassSpeedLimitProvider(config, client, url);
+                case "overpassTile" -> new OverpassTileSpeedLimitProvider(config, client, url);
                 default -> throw new IllegalArgumentException("Unknown speed limit provider");
             };
         }
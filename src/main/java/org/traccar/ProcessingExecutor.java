@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Singleton
+public class ProcessingExecutor {
+
+    public record LaneStatistics(int lane, int queueSize, long busyTime, double utilization) {
+    }
+
+    private static final class Lane {
+
+        private final DefaultEventExecutor executor;
+        private final LongAdder busyTime = new LongAdder();
+
+        private Lane(ThreadFactory threadFactory) {
+            executor = new DefaultEventExecutor(threadFactory);
+        }
+
+        private void execute(Runnable task) {
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    task.run();
+                } finally {
+                    busyTime.add(System.nanoTime() - start);
+                }
+            });
+        }
+    }
+
+    private final Lane[] lanes;
+    private final long startTime = System.nanoTime();
+
+    @Inject
+    public ProcessingExecutor(Config config) {
+        int threads = config.getInteger(Keys.SERVER_PROCESSING_THREADS);
+        if (threads > 0) {
+            ThreadFactory threadFactory = new DefaultThreadFactory("processing", true);
+            lanes = new Lane[threads];
+            for (int i = 0; i < threads; i++) {
+                lanes[i] = new Lane(threadFactory);
+            }
+        } else {
+            lanes = null;
+        }
+    }
+
+    /**
+     * Run task on the thread assigned to the device. Without dedicated processing threads, the channel event loop is
+     * used. Task is executed inline if the current thread is already the right one.
+     */
+    public void execute(ChannelHandlerContext ctx, long deviceId, Runnable task) {
+        if (lanes != null) {
+            Lane lane = lanes[Math.floorMod(Long.hashCode(deviceId), lanes.length)];
+            if (lane.executor.inEventLoop()) {
+                task.run();
+            } else {
+                lane.execute(task);
+            }
+        } else if (ctx.executor().inEventLoop()) {
+            task.run();
+        } else {
+            ctx.executor().execute(task);
+        }
+    }
+
+    public List<LaneStatistics> getStatistics() {
+        List<LaneStatistics> result = new ArrayList<>();
+        if (lanes != null) {
+            long uptime = System.nanoTime() - startTime;
+            for (int i = 0; i < lanes.length; i++) {
+                Lane lane = lanes[i];
+                long busyTime = lane.busyTime.sum();
+                result.add(new LaneStatistics(
+                        i, lane.executor.pendingTasks(),
+                        TimeUnit.NANOSECONDS.toMillis(busyTime), busyTime / (double) uptime));
+            }
+        }
+        return result;
+    }
+
+}
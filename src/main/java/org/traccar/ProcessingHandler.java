@@ -21,6 +21,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.database.BufferingManager;
 import org.traccar.database.NotificationManager;
@@ -59,40 +61,54 @@ import org.traccar.helper.PositionLogger;
 import org.traccar.model.Position;
 import org.traccar.session.cache.CacheManager;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 @Singleton
 @ChannelHandler.Sharable
-public class ProcessingHandler extends ChannelInboundHandlerAdapter implements BufferingManager.Callback {
+public class ProcessingHandler extends ChannelInboundHandlerAdapter
+        implements BackpressureManager.Callback, BufferingManager.Callback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessingHandler.class);
 
     private final CacheManager cacheManager;
     private final NotificationManager notificationManager;
     private final PositionLogger positionLogger;
+    private final ProcessingExecutor processingExecutor;
+    private final ProcessingMetrics processingMetrics;
+    private final BackpressureManager backpressureManager;
     private final BufferingManager bufferingManager;
     private final List<BasePositionHandler> positionHandlers;
     private final List<BaseEventHandler> eventHandlers;
     private final PostProcessHandler postProcessHandler;
 
-    private final Map<Long, Queue<Position>> queues = new HashMap<>();
+    private record Entry(ChannelHandlerContext context, Position position, long released) {
+    }
 
-    private synchronized Queue<Position> getQueue(long deviceId) {
-        return queues.computeIfAbsent(deviceId, k -> new LinkedList<>());
+    private static final class DeviceQueue {
+        private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean processing = new AtomicBoolean();
     }
 
+    private final Map<Long, DeviceQueue> queues = new ConcurrentHashMap<>();
+
     @Inject
     public ProcessingHandler(
             Injector injector, Config config,
-            CacheManager cacheManager, NotificationManager notificationManager, PositionLogger positionLogger) {
+            CacheManager cacheManager, NotificationManager notificationManager, PositionLogger positionLogger,
+            ProcessingExecutor processingExecutor, ProcessingMetrics processingMetrics) {
         this.cacheManager = cacheManager;
         this.notificationManager = notificationManager;
         this.positionLogger = positionLogger;
-        bufferingManager = new BufferingManager(config, this);
+        this.processingExecutor = processingExecutor;
+        this.processingMetrics = processingMetrics;
 
         positionHandlers = Stream.of(
                 ComputedAttributesHandler.Early.class,
@@ -133,90 +149,196 @@ public class ProcessingHandler extends ChannelInboundHandlerAdapter implements B
                 .toList();
 
         postProcessHandler = injector.getInstance(PostProcessHandler.class);
+
+        PositionForwardingHandler forwardingHandler = positionHandlers.stream()
+                .filter(PositionForwardingHandler.class::isInstance)
+                .map(PositionForwardingHandler.class::cast)
+                .findFirst().orElse(null);
+        backpressureManager = new BackpressureManager(
+                config, this, forwardingHandler != null ? forwardingHandler::getPending : () -> 0);
+        if (forwardingHandler != null) {
+            forwardingHandler.setDeliveryListener(backpressureManager::update);
+        }
+        bufferingManager = new BufferingManager(config, this);
+    }
+
+    boolean hasQueue(long deviceId) {
+        return queues.containsKey(deviceId);
     }
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         if (msg instanceof Position position) {
-            bufferingManager.accept(ctx, position);
+            backpressureManager.accept(ctx, position);
         } else {
             super.channelRead(ctx, msg);
         }
     }
 
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        backpressureManager.remove(ctx.channel());
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void onAccepted(ChannelHandlerContext context, Position position) {
+        bufferingManager.accept(context, position);
+    }
+
     @Override
     public void onReleased(ChannelHandlerContext context, Position position) {
-        Queue<Position> queue = getQueue(position.getDeviceId());
-        boolean queued;
-        synchronized (queue) {
-            queued = !queue.isEmpty();
-            queue.offer(position);
+        Entry entry = new Entry(context, position, System.nanoTime());
+        processingExecutor.execute(context, position.getDeviceId(), () -> processReleased(entry));
+    }
+
+    private void processReleased(Entry entry) {
+        long deviceId = entry.position().getDeviceId();
+        DeviceQueue queue = queues.compute(deviceId, (key, value) -> {
+            if (value == null) {
+                value = new DeviceQueue();
+            }
+            value.entries.offer(entry);
+            return value;
+        });
+        processQueue(deviceId, queue);
+    }
+
+    private void processQueue(long deviceId, DeviceQueue queue) {
+        while (queue.processing.compareAndSet(false, true)) {
+            Entry entry = queue.entries.poll();
+            if (entry != null) {
+                try {
+                    cacheManager.addDevice(deviceId, deviceId);
+                } catch (Exception e) {
+                    LOGGER.warn("Failed to load device", e);
+                    cacheManager.removeDevice(deviceId, deviceId);
+                    backpressureManager.release(entry.context());
+                    queue.processing.set(false);
+                    continue;
+                }
+                processPositionHandlers(entry);
+                return;
+            }
+            queue.processing.set(false);
+            if (queue.entries.isEmpty()) {
+                queues.computeIfPresent(deviceId, (key, value) ->
+                        value.entries.isEmpty() && !value.processing.get() ? null : value);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Processing of a single position. The chain is finished exactly once, even if any of the steps fails, so the
+     * backpressure permit is always released and the next position of the device is processed.
+     */
+    private final class PositionHandlerChain implements BasePositionHandler.Callback {
+
+        private final ChannelHandlerContext ctx;
+        private final Position position;
+        private final long start;
+        private final Iterator<BasePositionHandler> iterator = positionHandlers.iterator();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private BasePositionHandler handler;
+        private long handlerStart;
+
+        private PositionHandlerChain(ChannelHandlerContext ctx, Position position, long start) {
+            this.ctx = ctx;
+            this.position = position;
+            this.start = start;
         }
-        if (!queued) {
+
+        private void run(Runnable step) {
             try {
-                cacheManager.addDevice(position.getDeviceId(), position.getDeviceId());
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+                step.run();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Position processing failed", e);
+                finish();
             }
-            processPositionHandlers(context, position);
         }
-    }
 
-    private void processPositionHandlers(ChannelHandlerContext ctx, Position position) {
-        var iterator = positionHandlers.iterator();
-        iterator.next().handlePosition(position, new BasePositionHandler.Callback() {
-            @Override
-            public void processed(boolean filtered) {
-                Runnable continuation = () -> {
-                    if (!filtered) {
-                        if (iterator.hasNext()) {
-                            iterator.next().handlePosition(position, this);
-                        } else {
-                            processEventHandlers(ctx, position);
-                        }
+        private void begin() {
+            run(this::next);
+        }
+
+        private void next() {
+            handler = iterator.next();
+            handlerStart = System.nanoTime();
+            handler.handlePosition(position, this);
+        }
+
+        @Override
+        public void processed(boolean filtered) {
+            if (finished.get()) {
+                return;
+            }
+            processingMetrics.recordHandler(handler.getClass(), System.nanoTime() - handlerStart);
+            processingExecutor.execute(ctx, position.getDeviceId(), () -> run(() -> {
+                if (!filtered) {
+                    if (iterator.hasNext()) {
+                        next();
                     } else {
-                        finishedProcessing(ctx, position, true);
+                        processEventHandlers();
                     }
-                };
-                if (ctx.executor().inEventLoop()) {
-                    continuation.run();
                 } else {
-                    ctx.executor().execute(continuation);
+                    finishedProcessing(true);
                 }
-            }
-        });
-    }
+            }));
+        }
 
-    private void processEventHandlers(ChannelHandlerContext ctx, Position position) {
-        eventHandlers.forEach(handler -> handler.analyzePosition(
-                position, (event) -> notificationManager.updateEvents(Map.of(event, position))));
-        finishedProcessing(ctx, position, false);
-    }
+        private void processEventHandlers() {
+            for (BaseEventHandler eventHandler : eventHandlers) {
+                long eventHandlerStart = System.nanoTime();
+                eventHandler.analyzePosition(
+                        position, (event) -> notificationManager.updateEvents(Map.of(event, position)));
+                processingMetrics.recordHandler(eventHandler.getClass(), System.nanoTime() - eventHandlerStart);
+            }
+            finishedProcessing(false);
+        }
 
-    private void finishedProcessing(ChannelHandlerContext ctx, Position position, boolean filtered) {
-        if (!filtered) {
-            postProcessHandler.handlePosition(position, ignore -> {
-                positionLogger.log(ctx, position);
+        private void finishedProcessing(boolean filtered) {
+            if (!filtered) {
+                long postProcessStart = System.nanoTime();
+                postProcessHandler.handlePosition(position, ignore -> run(() -> {
+                    long now = System.nanoTime();
+                    processingMetrics.recordHandler(PostProcessHandler.class, now - postProcessStart);
+                    processingMetrics.recordProtocol(position.getProtocol(), now - start);
+                    positionLogger.log(ctx, position);
+                    ctx.writeAndFlush(new AcknowledgementHandler.EventHandled(position));
+                    finish();
+                }));
+            } else {
+                processingMetrics.recordProtocol(position.getProtocol(), System.nanoTime() - start);
                 ctx.writeAndFlush(new AcknowledgementHandler.EventHandled(position));
-                processNextPosition(ctx, position.getDeviceId());
-            });
-        } else {
-            ctx.writeAndFlush(new AcknowledgementHandler.EventHandled(position));
-            processNextPosition(ctx, position.getDeviceId());
+                finish();
+            }
         }
-    }
 
-    private void processNextPosition(ChannelHandlerContext ctx, long deviceId) {
-        Queue<Position> queue = getQueue(deviceId);
-        Position nextPosition;
-        synchronized (queue) {
-            queue.poll(); // remove current position
-            nextPosition = queue.peek();
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                backpressureManager.release(ctx);
+                processNextPosition(position.getDeviceId());
+            }
         }
-        if (nextPosition != null) {
-            processPositionHandlers(ctx, nextPosition);
+    }
+
+    private void processPositionHandlers(Entry entry) {
+        long start = System.nanoTime();
+        processingMetrics.recordQueueWait(start - entry.released());
+        new PositionHandlerChain(entry.context(), entry.position(), start).begin();
+    }
+
+    private void processNextPosition(long deviceId) {
+        DeviceQueue queue = queues.get(deviceId);
+        Entry entry = queue.entries.poll();
+        if (entry != null) {
+            processPositionHandlers(entry);
         } else {
             cacheManager.removeDevice(deviceId, deviceId);
+            queue.processing.set(false);
+            processQueue(deviceId, queue);
         }
     }
 
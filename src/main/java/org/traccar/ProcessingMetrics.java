@@ -0,0 +1,64 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar;
+
+import jakarta.inject.Singleton;
+import org.traccar.helper.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Singleton
+public class ProcessingMetrics {
+
+    public record Snapshot(
+            LatencyHistogram.Snapshot queueWait,
+            Map<String, LatencyHistogram.Snapshot> handlers,
+            Map<String, LatencyHistogram.Snapshot> protocols) {
+    }
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final Map<Class<?>, LatencyHistogram> handlers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> protocols = new ConcurrentHashMap<>();
+
+    public void recordQueueWait(long nanos) {
+        queueWait.record(nanos);
+    }
+
+    public void recordHandler(Class<?> handlerClass, long nanos) {
+        handlers.computeIfAbsent(handlerClass, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    public void recordProtocol(String protocol, long nanos) {
+        if (protocol != null) {
+            protocols.computeIfAbsent(protocol, key -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    private static String getName(Class<?> clazz) {
+        return clazz.getName().substring(clazz.getPackageName().length() + 1);
+    }
+
+    public Snapshot getSnapshot() {
+        Map<String, LatencyHistogram.Snapshot> handlerSnapshots = new TreeMap<>();
+        handlers.forEach((key, value) -> handlerSnapshots.put(getName(key), value.getSnapshot()));
+        Map<String, LatencyHistogram.Snapshot> protocolSnapshots = new TreeMap<>();
+        protocols.forEach((key, value) -> protocolSnapshots.put(key, value.getSnapshot()));
+        return new Snapshot(queueWait.getSnapshot(), handlerSnapshots, protocolSnapshots);
+    }
+
+}
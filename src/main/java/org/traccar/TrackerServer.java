@@ -19,10 +19,9 @@ import io.netty.bootstrap.AbstractBootstrap;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.socket.nio.NioDatagramChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.traccar.config.Config;
@@ -42,6 +41,7 @@ public abstract class TrackerServer implements TrackerConnector {
 
     private final int port;
     private final String address;
+    private final int channels;
 
     private final ChannelGroup channelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
 
@@ -82,14 +82,21 @@ public abstract class TrackerServer implements TrackerConnector {
         this.datagram = datagram;
         var eventLoopGroupFactory = Main.getInjector().getInstance(EventLoopGroupFactory.class);
         if (datagram) {
-            bootstrap = new Bootstrap()
+            channels = eventLoopGroupFactory.isNative()
+                    ? Math.max(config.getInteger(Keys.SERVER_NETTY_DATAGRAM_CHANNELS), 1) : 1;
+            Bootstrap datagramBootstrap = new Bootstrap()
                     .group(eventLoopGroupFactory.getWorkerGroup())
-                    .channel(NioDatagramChannel.class)
+                    .channel(eventLoopGroupFactory.getDatagramChannelClass())
                     .handler(pipelineFactory);
+            if (channels > 1) {
+                datagramBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+            }
+            bootstrap = datagramBootstrap;
         } else {
+            channels = 1;
             bootstrap = new ServerBootstrap()
                     .group(eventLoopGroupFactory.getBossGroup(), eventLoopGroupFactory.getWorkerGroup())
-                    .channel(NioServerSocketChannel.class)
+                    .channel(eventLoopGroupFactory.getServerChannelClass())
                     .childHandler(pipelineFactory);
         }
     }
@@ -118,9 +125,11 @@ public abstract class TrackerServer implements TrackerConnector {
             endpoint = new InetSocketAddress(address, port);
         }
 
-        Channel channel = bootstrap.bind(endpoint).syncUninterruptibly().channel();
-        if (channel != null) {
-            getChannelGroup().add(channel);
+        for (int i = 0; i < channels; i++) {
+            Channel channel = bootstrap.bind(endpoint).syncUninterruptibly().channel();
+            if (channel != null) {
+                getChannelGroup().add(channel);
+            }
         }
     }
 
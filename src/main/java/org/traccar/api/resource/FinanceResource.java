@@ -1,5 +1,5 @@
 /*
- * Copyright 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2024 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -121,17 +121,7 @@ public class FinanceResource extends BaseResource {
                 return new ArrayList<>();
             }
 
-            // Create OR conditions for each driver ID
-            Condition driverCondition = null;
-            for (Long id : permittedDrivers) {
-                Condition equals = new Condition.Equals("driverId", id);
-                if (driverCondition == null) {
-                    driverCondition = equals;
-                } else {
-                    driverCondition = new Condition.Or(driverCondition, equals);
-                }
-            }
-            conditions.add(driverCondition);
+            conditions.add(new Condition.In("driverId", permittedDrivers));
         }
 
         // Get payments
@@ -250,17 +240,7 @@ public class FinanceResource extends BaseResource {
                 return new ArrayList<>();
             }
 
-            // Create OR conditions for each vehicle ID
-            Condition vehicleCondition = null;
-            for (Long id : permittedVehicles) {
-                Condition equals = new Condition.Equals("vehicleId", id);
-                if (vehicleCondition == null) {
-                    vehicleCondition = equals;
-                } else {
-                    vehicleCondition = new Condition.Or(vehicleCondition, equals);
-                }
-            }
-            conditions.add(vehicleCondition);
+            conditions.add(new Condition.In("vehicleId", permittedVehicles));
         }
 
         // Get expenses
@@ -1,5 +1,5 @@
 /*
- * Copyright 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2024 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -82,17 +82,7 @@ public class ReminderResource extends ExtendedObjectResource<Reminder> {
                 return new ArrayList<>();
             }
 
-            // Create OR conditions for each vehicle ID
-            Condition vehicleCondition = null;
-            for (Long id : permittedVehicles) {
-                Condition equals = new Condition.Equals("vehicleId", id);
-                if (vehicleCondition == null) {
-                    vehicleCondition = equals;
-                } else {
-                    vehicleCondition = new Condition.Or(vehicleCondition, equals);
-                }
-            }
-            conditions.add(vehicleCondition);
+            conditions.add(new Condition.In("vehicleId", permittedVehicles));
         }
 
         // Get reminders
@@ -145,17 +135,7 @@ public class ReminderResource extends ExtendedObjectResource<Reminder> {
                 return new ArrayList<>();
             }
 
-            // Create OR conditions for each vehicle ID
-            Condition vehicleCondition = null;
-            for (Long id : permittedVehicles) {
-                Condition equals = new Condition.Equals("vehicleId", id);
-                if (vehicleCondition == null) {
-                    vehicleCondition = equals;
-                } else {
-                    vehicleCondition = new Condition.Or(vehicleCondition, equals);
-                }
-            }
-            conditions.add(vehicleCondition);
+            conditions.add(new Condition.In("vehicleId", permittedVehicles));
         }
 
         // Get reminders
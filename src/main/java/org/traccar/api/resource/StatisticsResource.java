@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,7 +15,14 @@
  */
 package org.traccar.api.resource;
 
+import org.traccar.ProcessingExecutor;
+import org.traccar.ProcessingMetrics;
 import org.traccar.api.BaseResource;
+import org.traccar.geocoder.CachingGeocoder;
+import org.traccar.geocoder.Geocoder;
+import org.traccar.geolocation.CachingGeolocationProvider;
+import org.traccar.geolocation.GeolocationProvider;
+import org.traccar.helper.LruCache;
 import org.traccar.model.Statistics;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
@@ -23,6 +30,8 @@ import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Order;
 import org.traccar.storage.query.Request;
 
+import jakarta.annotation.Nullable;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -31,6 +40,7 @@ import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Stream;
 
 @Path("statistics")
@@ -38,6 +48,20 @@ import java.util.stream.Stream;
 @Consumes(MediaType.APPLICATION_JSON)
 public class StatisticsResource extends BaseResource {
 
+    @Inject
+    private ProcessingExecutor processingExecutor;
+
+    @Inject
+    private ProcessingMetrics processingMetrics;
+
+    @Inject
+    @Nullable
+    private Geocoder geocoder;
+
+    @Inject
+    @Nullable
+    private GeolocationProvider geolocationProvider;
+
     @GET
     public Stream<Statistics> get(
             @QueryParam("from") Date from, @QueryParam("to") Date to) throws StorageException {
@@ -48,4 +72,33 @@ public class StatisticsResource extends BaseResource {
                 new Order("captureTime")));
     }
 
+    @Path("processing")
+    @GET
+    public List<ProcessingExecutor.LaneStatistics> getProcessing() throws StorageException {
+        permissionsService.checkAdmin(getUserId());
+        return processingExecutor.getStatistics();
+    }
+
+    @Path("pipeline")
+    @GET
+    public ProcessingMetrics.Snapshot getPipeline() throws StorageException {
+        permissionsService.checkAdmin(getUserId());
+        return processingMetrics.getSnapshot();
+    }
+
+    @Path("geocoder")
+    @GET
+    public LruCache.Statistics getGeocoder() throws StorageException {
+        permissionsService.checkAdmin(getUserId());
+        return geocoder instanceof CachingGeocoder cachingGeocoder ? cachingGeocoder.getStatistics() : null;
+    }
+
+    @Path("geolocation")
+    @GET
+    public LruCache.Statistics getGeolocation() throws StorageException {
+        permissionsService.checkAdmin(getUserId());
+        return geolocationProvider instanceof CachingGeolocationProvider cachingProvider
+                ? cachingProvider.getStatistics() : null;
+    }
+
 }
@@ -338,6 +338,102 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             0);
 
+    /**
+     * Use native epoll transport on Linux. If native library is not available, server falls back to the default NIO
+     * transport.
+     */
+    public static final ConfigKey<Boolean> SERVER_NETTY_NATIVE = new BooleanConfigKey(
+            "server.nettyNative",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Number of sockets bound for each UDP protocol. Values above one require native transport. Sockets share the
+     * port using SO_REUSEPORT, so the kernel spreads datagrams between them and they are served by different worker
+     * threads. Default is one.
+     */
+    public static final ConfigKey<Integer> SERVER_NETTY_DATAGRAM_CHANNELS = new IntegerConfigKey(
+            "server.nettyDatagramChannels",
+            List.of(KeyType.CONFIG),
+            1);
+
+    /**
+     * Number of threads for processing positions. Positions from the same device are always processed by the same
+     * thread to keep the order. If not specified or zero, positions are processed by Netty worker threads, which means
+     * slow database or network calls delay other connections served by the same thread.
+     */
+    public static final ConfigKey<Integer> SERVER_PROCESSING_THREADS = new IntegerConfigKey(
+            "server.processingThreads",
+            List.of(KeyType.CONFIG),
+            0);
+
+    /**
+     * Maximum number of positions that are decoded, but not yet fully processed. Positions waiting for delivery to
+     * the forwarding endpoint are counted as well. When the limit is reached, TCP connections stop reading from
+     * sockets until the number of pending positions drops below the low watermark. If not specified or zero,
+     * backpressure is disabled.
+     */
+    public static final ConfigKey<Integer> SERVER_BACKPRESSURE_HIGH_WATERMARK = new IntegerConfigKey(
+            "server.backpressure.highWatermark",
+            List.of(KeyType.CONFIG),
+            0);
+
+    /**
+     * Number of pending positions at which paused connections resume reading. Default is half of the high watermark.
+     */
+    public static final ConfigKey<Integer> SERVER_BACKPRESSURE_LOW_WATERMARK = new IntegerConfigKey(
+            "server.backpressure.lowWatermark",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Same as the high watermark, but applied to positions received by each network event loop separately.
+     */
+    public static final ConfigKey<Integer> SERVER_BACKPRESSURE_LOOP_HIGH_WATERMARK = new IntegerConfigKey(
+            "server.backpressure.loopHighWatermark",
+            List.of(KeyType.CONFIG),
+            0);
+
+    /**
+     * Same as the low watermark, but applied to each network event loop separately. Default is half of the event
+     * loop high watermark.
+     */
+    public static final ConfigKey<Integer> SERVER_BACKPRESSURE_LOOP_LOW_WATERMARK = new IntegerConfigKey(
+            "server.backpressure.loopLowWatermark",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * UDP sockets can't push back on devices, so positions received over the limit either have to be dropped or
+     * spooled in memory until processing catches up. Possible values are 'drop' and 'spool'.
+     */
+    public static final ConfigKey<String> SERVER_BACKPRESSURE_DATAGRAM_POLICY = new StringConfigKey(
+            "server.backpressure.datagramPolicy",
+            List.of(KeyType.CONFIG),
+            "drop");
+
+    /**
+     * Maximum number of spooled UDP positions. Positions above the limit are dropped.
+     */
+    public static final ConfigKey<Integer> SERVER_BACKPRESSURE_SPOOL_SIZE = new IntegerConfigKey(
+            "server.backpressure.spoolSize",
+            List.of(KeyType.CONFIG),
+            10000);
+
+    /**
+     * Load all devices with their linked objects into the cache on startup, before any listeners are opened. Warm-up
+     * avoids loading every device separately in a reconnect storm after a restart. A preloaded device is released
+     * when its first connection is closed, or after the warm-up timeout if it never connects.
+     */
+    public static final ConfigKey<Boolean> SERVER_CACHE_WARM_UP = new BooleanConfigKey(
+            "server.cacheWarmUp",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Time in seconds to keep devices preloaded by the cache warm-up that have not been referenced since.
+     */
+    public static final ConfigKey<Long> SERVER_CACHE_WARM_UP_TIMEOUT = new LongConfigKey(
+            "server.cacheWarmUp.timeout",
+            List.of(KeyType.CONFIG),
+            600L);
+
     /**
      * Address for uploading aggregated anonymous usage statistics. Uploaded information is the same you can see on the
      * statistics screen in the web app. It does not include any sensitive (e.g. locations).
@@ -508,6 +604,15 @@ public final class Keys {
             "database.maxPoolSize",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of prepared statements cached by the JDBC driver for each connection. Applies to MySQL, MariaDB and
+     * PostgreSQL drivers. For MySQL and MariaDB it also enables server-side prepared statements. If not specified or
+     * zero, driver defaults are used.
+     */
+    public static final ConfigKey<Integer> DATABASE_STATEMENT_CACHE_SIZE = new IntegerConfigKey(
+            "database.statementCacheSize",
+            List.of(KeyType.CONFIG));
+
     /**
      * SQL query to check connection status. Default value is 'SELECT 1'. For Oracle database you can use
      * 'SELECT 1 FROM DUAL'.
@@ -566,6 +671,66 @@ public final class Keys {
             "database.saveEmpty",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Maximum number of positions written to the database in a single batch. If not specified or zero, each position
+     * is stored with a separate query.
+     */
+    public static final ConfigKey<Integer> DATABASE_BATCH_SIZE = new IntegerConfigKey(
+            "database.batchSize",
+            List.of(KeyType.CONFIG),
+            0);
+
+    /**
+     * Maximum time in milliseconds a position waits for the batch to fill up before it is written to the database.
+     */
+    public static final ConfigKey<Long> DATABASE_BATCH_DELAY = new LongConfigKey(
+            "database.batchDelay",
+            List.of(KeyType.CONFIG),
+            100L);
+
+    /**
+     * Maximum number of positions waiting to be written in batches. If the queue is full, positions are stored
+     * directly by the processing thread.
+     */
+    public static final ConfigKey<Integer> DATABASE_BATCH_QUEUE_SIZE = new IntegerConfigKey(
+            "database.batchQueueSize",
+            List.of(KeyType.CONFIG),
+            10000);
+
+    /**
+     * Directory for the local position journal. If the database is unavailable, positions are written to the journal
+     * and replayed into the database once it recovers. If not specified, journal is disabled.
+     */
+    public static final ConfigKey<String> DATABASE_JOURNAL_PATH = new StringConfigKey(
+            "database.journal.path",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Size of a single journal segment file in bytes.
+     */
+    public static final ConfigKey<Integer> DATABASE_JOURNAL_SEGMENT_SIZE = new IntegerConfigKey(
+            "database.journal.segmentSize",
+            List.of(KeyType.CONFIG),
+            16 * 1024 * 1024);
+
+    /**
+     * Maximum total size of the journal in bytes. When the limit is reached, positions are lost again.
+     */
+    public static final ConfigKey<Long> DATABASE_JOURNAL_MAX_SIZE = new LongConfigKey(
+            "database.journal.maxSize",
+            List.of(KeyType.CONFIG),
+            1024L * 1024 * 1024);
+
+    /**
+     * Interval in milliseconds for writing device state (status, last update time and latest position) to the
+     * database. Updates for the same device within the interval are combined into one. Status changes are always
+     * written immediately. If not specified or zero, every update is written immediately.
+     */
+    public static final ConfigKey<Long> DATABASE_DEVICE_UPDATE_INTERVAL = new LongConfigKey(
+            "database.deviceUpdateInterval",
+            List.of(KeyType.CONFIG),
+            0L);
+
     /**
      * Device limit for self registered users. Default value is -1, which indicates no limit.
      */
@@ -1720,6 +1885,65 @@ public final class Keys {
             "geocoder.cacheSize",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of decimal places coordinates are rounded to for geocoder cache lookups. Positions rounded to the same
+     * values share one address. Concurrent asynchronous requests are combined by the same rounding, but only when a
+     * geocoder cache is enabled. Default value is 4, which is roughly 10 meters.
+     */
+    public static final ConfigKey<Integer> GEOCODER_CACHE_PRECISION = new IntegerConfigKey(
+            "geocoder.cachePrecision",
+            List.of(KeyType.CONFIG),
+            4);
+
+    /**
+     * Geocoder cache entry expiration time in seconds. By default, entries only expire when the cache is full.
+     */
+    public static final ConfigKey<Long> GEOCODER_CACHE_EXPIRATION = new LongConfigKey(
+            "geocoder.cacheExpiration",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * File for persistent geocoder cache. Addresses stored in the file survive server restarts and are shared by
+     * position processing, notifications and reports. If not specified, persistent cache is disabled.
+     */
+    public static final ConfigKey<String> GEOCODER_CACHE_PATH = new StringConfigKey(
+            "geocoder.cachePath",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Size of the persistent geocoder cache file in bytes. When the file is full, least recently used addresses are
+     * removed.
+     */
+    public static final ConfigKey<Integer> GEOCODER_CACHE_FILE_SIZE = new IntegerConfigKey(
+            "geocoder.cacheFileSize",
+            List.of(KeyType.CONFIG),
+            32 * 1024 * 1024);
+
+    /**
+     * Number of threads sending reverse geocoding requests for incoming positions. By default, requests are sent
+     * asynchronously without any concurrency limit.
+     */
+    public static final ConfigKey<Integer> GEOCODER_THREADS = new IntegerConfigKey(
+            "geocoder.threads",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Maximum number of geocoding requests waiting for a free thread. If the queue is full, positions are processed
+     * without an address. Only applicable if 'geocoder.threads' is set.
+     */
+    public static final ConfigKey<Integer> GEOCODER_QUEUE_SIZE = new IntegerConfigKey(
+            "geocoder.queueSize",
+            List.of(KeyType.CONFIG),
+            100);
+
+    /**
+     * Maximum number of geocoding requests per second for incoming positions. Positions exceeding the limit are
+     * processed without an address. By default, there is no limit.
+     */
+    public static final ConfigKey<Double> GEOCODER_RATE_LIMIT = new DoubleConfigKey(
+            "geocoder.rateLimit",
+            List.of(KeyType.CONFIG));
+
     /**
      * Disable automatic reverse geocoding requests for all positions.
      */
@@ -1804,6 +2028,21 @@ public final class Keys {
             "geolocation.requireWifi",
             List.of(KeyType.CONFIG));
 
+    /**
+     * Number of resolved networks cached for all devices. Networks with the same cell towers and Wi-Fi access points
+     * are resolved only once. By default, cache is disabled.
+     */
+    public static final ConfigKey<Integer> GEOLOCATION_CACHE_SIZE = new IntegerConfigKey(
+            "geolocation.cacheSize",
+            List.of(KeyType.CONFIG));
+
+    /**
+     * Geolocation cache entry expiration time in seconds. By default, entries only expire when the cache is full.
+     */
+    public static final ConfigKey<Long> GEOLOCATION_CACHE_EXPIRATION = new LongConfigKey(
+            "geolocation.cacheExpiration",
+            List.of(KeyType.CONFIG));
+
     /**
      * Default MCC value to use if device doesn't report MCC.
      */
@@ -1826,7 +2065,8 @@ public final class Keys {
             List.of(KeyType.CONFIG));
 
     /**
-     * Provider to use for speed limit. Available options: overpass. By default overpass is used.
+     * Provider to use for speed limit. Available options: overpass, overpassTile. By default overpass is used.
+     * With overpassTile, roads are loaded for whole map tiles and speed limits are looked up locally.
      */
     public static final ConfigKey<String> SPEED_LIMIT_TYPE = new StringConfigKey(
             "speedLimit.type",
@@ -1847,6 +2087,23 @@ public final class Keys {
             List.of(KeyType.CONFIG),
             100);
 
+    /**
+     * Map tile zoom level for overpassTile speed limit provider. Default value is 14, which is a tile of about 2.4 km
+     * at the equator.
+     */
+    public static final ConfigKey<Integer> SPEED_LIMIT_TILE_ZOOM = new IntegerConfigKey(
+            "speedLimit.tileZoom",
+            List.of(KeyType.CONFIG),
+            14);
+
+    /**
+     * Maximum number of map tiles kept in memory by overpassTile speed limit provider.
+     */
+    public static final ConfigKey<Integer> SPEED_LIMIT_TILE_CACHE_SIZE = new IntegerConfigKey(
+            "speedLimit.tileCacheSize",
+            List.of(KeyType.CONFIG),
+            1000);
+
     /**
      * Override latitude sign / hemisphere. Useful in cases where value is incorrect because of device bug. Value can be
      * N for North or S for South.
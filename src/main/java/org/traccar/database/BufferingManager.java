@@ -17,7 +17,6 @@ package org.traccar.database;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.HashedWheelTimer;
-import io.netty.util.Timeout;
 import io.netty.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,11 +24,14 @@ import org.traccar.config.Config;
 import org.traccar.config.Keys;
 import org.traccar.model.Position;
 
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BufferingManager {
 
@@ -39,15 +41,20 @@ public class BufferingManager {
         void onReleased(ChannelHandlerContext context, Position position);
     }
 
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private static final class Holder implements Comparable<Holder> {
 
         private final ChannelHandlerContext context;
         private final Position position;
-        private Timeout timeout;
+        private final long arrival;
+        private final long sequence;
 
         private Holder(ChannelHandlerContext context, Position position) {
             this.context = context;
             this.position = position;
+            this.arrival = System.nanoTime();
+            this.sequence = SEQUENCE.incrementAndGet();
         }
 
         private int compareTime(Date left, Date right) {
@@ -69,48 +76,80 @@ public class BufferingManager {
                 return deviceTimeResult;
             }
 
-            return position.getServerTime().compareTo(other.position.getServerTime());
+            int serverTimeResult = position.getServerTime().compareTo(other.position.getServerTime());
+            if (serverTimeResult != 0) {
+                return serverTimeResult;
+            }
+
+            return Long.compare(sequence, other.sequence);
         }
     }
 
-    private final Timer timer = new HashedWheelTimer();
+    private static final class DeviceBuffer {
+        private final TreeSet<Holder> holders = new TreeSet<>();
+        private boolean scheduled;
+    }
+
+    private final Timer timer;
     private final Callback callback;
     private final long threshold;
 
-    private final Map<Long, TreeSet<Holder>> buffer = new HashMap<>();
+    private final Map<Long, DeviceBuffer> buffers = new ConcurrentHashMap<>();
 
     public BufferingManager(Config config, Callback callback) {
+        this(config, new HashedWheelTimer(), callback);
+    }
+
+    public BufferingManager(Config config, Timer timer, Callback callback) {
+        this.timer = timer;
         this.callback = callback;
-        threshold = config.getLong(Keys.SERVER_BUFFERING_THRESHOLD);
+        threshold = TimeUnit.MILLISECONDS.toNanos(config.getLong(Keys.SERVER_BUFFERING_THRESHOLD));
+    }
+
+    private void schedule(long deviceId, DeviceBuffer buffer, long deadline) {
+        buffer.scheduled = true;
+        timer.newTimeout(
+                timeout -> release(deviceId),
+                Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
     }
 
-    private Timeout scheduleTimeout(Holder holder) {
-        return timer.newTimeout(
-                timeout -> {
-                    LOGGER.debug("released {}", holder.position.getFixTime());
-                    synchronized (buffer) {
-                        buffer.get(holder.position.getDeviceId()).remove(holder);
-                    }
-                    holder.context.executor().execute(() -> {
-                        callback.onReleased(holder.context, holder.position);
-                    });
-                },
-                threshold, TimeUnit.MILLISECONDS);
+    private void release(long deviceId) {
+        List<Holder> released = new ArrayList<>();
+        buffers.computeIfPresent(deviceId, (key, buffer) -> {
+            buffer.scheduled = false;
+            long now = System.nanoTime();
+            long watermark = 0;
+            while (!buffer.holders.isEmpty()) {
+                Holder holder = buffer.holders.first();
+                watermark = Math.max(watermark, holder.arrival + threshold);
+                if (watermark - now > 0) {
+                    schedule(deviceId, buffer, watermark);
+                    break;
+                }
+                released.add(buffer.holders.pollFirst());
+            }
+            return buffer.holders.isEmpty() ? null : buffer;
+        });
+        for (Holder holder : released) {
+            LOGGER.debug("released {}", holder.position.getFixTime());
+            callback.onReleased(holder.context, holder.position);
+        }
     }
 
     public void accept(ChannelHandlerContext context, Position position) {
         if (threshold > 0) {
-            synchronized (buffer) {
-                LOGGER.debug("queued {}", position.getFixTime());
-                var queue = buffer.computeIfAbsent(position.getDeviceId(), k -> new TreeSet<>());
-                Holder holder = new Holder(context, position);
-                holder.timeout = scheduleTimeout(holder);
-                queue.add(holder);
-                queue.tailSet(holder, false).forEach(h -> {
-                    h.timeout.cancel();
-                    h.timeout = scheduleTimeout(h);
-                });
-            }
+            LOGGER.debug("queued {}", position.getFixTime());
+            Holder holder = new Holder(context, position);
+            buffers.compute(position.getDeviceId(), (key, buffer) -> {
+                if (buffer == null) {
+                    buffer = new DeviceBuffer();
+                }
+                buffer.holders.add(holder);
+                if (!buffer.scheduled) {
+                    schedule(key, buffer, holder.arrival + threshold);
+                }
+                return buffer;
+            });
         } else {
             callback.onReleased(context, position);
         }
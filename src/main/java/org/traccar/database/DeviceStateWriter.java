@@ -0,0 +1,208 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Singleton
+public class DeviceStateWriter implements LifecycleObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceStateWriter.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final class Pending {
+
+        private final Device device = new Device();
+        private final Set<String> columns = new TreeSet<>();
+
+        private Pending(long deviceId) {
+            device.setId(deviceId);
+        }
+    }
+
+    private final Storage storage;
+    private final long interval;
+
+    private final Map<Long, Pending> delayed = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private Set<Long> flushing = Set.of();
+
+    private volatile boolean running;
+    private ScheduledExecutorService executor;
+
+    @Inject
+    public DeviceStateWriter(Config config, Storage storage) {
+        this.storage = storage;
+        interval = config.getLong(Keys.DATABASE_DEVICE_UPDATE_INTERVAL);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (interval > 0) {
+            running = true;
+            executor = Executors.newSingleThreadScheduledExecutor();
+            executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            running = false;
+            executor.shutdown();
+            executor.awaitTermination(interval, TimeUnit.MILLISECONDS);
+            executor = null;
+            flush();
+        }
+    }
+
+    public void updateStatus(long deviceId, String status, Date lastUpdate, boolean immediate) {
+        write(deviceId, immediate, item -> {
+            item.device.setStatus(status);
+            item.device.setLastUpdate(lastUpdate);
+            item.columns.add("status");
+            item.columns.add("lastUpdate");
+        });
+    }
+
+    public void updatePositionId(long deviceId, long positionId) {
+        write(deviceId, false, item -> {
+            item.device.setPositionId(positionId);
+            item.columns.add("positionId");
+        });
+    }
+
+    private interface Modifier {
+        void apply(Pending item);
+    }
+
+    private Object getLock(long deviceId) {
+        return locks[Math.floorMod(Long.hashCode(deviceId), locks.length)];
+    }
+
+    private void store(Pending item) throws StorageException {
+        storage.updateObjects(List.of(item.device), new Columns.Include(item.columns.toArray(String[]::new)));
+    }
+
+    /**
+     * Deferred changes are merged into the pending item. Immediate changes are written together with any pending
+     * changes of the device. If the device is part of a flush that is still being written, its changes are delayed
+     * until the flush completes, so an older flushed state can't be stored after a newer immediate one.
+     */
+    private void write(long deviceId, boolean immediate, Modifier modifier) {
+        flushLock.readLock().lock();
+        try {
+            synchronized (getLock(deviceId)) {
+                Pending item = delayed.get(deviceId);
+                if (item != null) {
+                    modifier.apply(item);
+                } else if (running && !immediate) {
+                    modifier.apply(pending.computeIfAbsent(deviceId, Pending::new));
+                } else {
+                    item = pending.remove(deviceId);
+                    if (item == null) {
+                        item = new Pending(deviceId);
+                    }
+                    modifier.apply(item);
+                    if (flushing.contains(deviceId)) {
+                        delayed.put(deviceId, item);
+                    } else {
+                        store(item);
+                    }
+                }
+            }
+        } catch (StorageException e) {
+            LOGGER.warn("Update device state error", e);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pending changes are swapped out under the lock and written after it is released, so writes for other devices
+     * don't wait for the database. Afterwards every flushed device is released under its device lock, and changes
+     * delayed during the flush are written.
+     */
+    private void flush() {
+        Map<Long, Pending> items;
+        flushLock.writeLock().lock();
+        try {
+            items = pending;
+            pending = new ConcurrentHashMap<>();
+            flushing = items.keySet();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        Map<Set<String>, List<Device>> groups = new HashMap<>();
+        for (Pending item : items.values()) {
+            groups.computeIfAbsent(item.columns, k -> new ArrayList<>()).add(item.device);
+        }
+        for (var entry : groups.entrySet()) {
+            try {
+                storage.updateObjects(entry.getValue(), new Columns.Include(entry.getKey().toArray(String[]::new)));
+            } catch (StorageException e) {
+                LOGGER.warn("Update device state error", e);
+            }
+        }
+
+        for (Long deviceId : List.copyOf(items.keySet())) {
+            synchronized (getLock(deviceId)) {
+                items.remove(deviceId);
+                Pending item = delayed.remove(deviceId);
+                if (item != null) {
+                    try {
+                        store(item);
+                    } catch (StorageException e) {
+                        LOGGER.warn("Update device state error", e);
+                    }
+                }
+            }
+        }
+    }
+
+}
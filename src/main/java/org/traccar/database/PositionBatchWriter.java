@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Singleton
+public class PositionBatchWriter implements LifecycleObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionBatchWriter.class);
+
+    private record Entry(Position position, Runnable callback) {
+    }
+
+    private final Storage storage;
+    private final StatisticsManager statisticsManager;
+    private final PositionJournal positionJournal;
+    private final int batchSize;
+    private final long batchDelay;
+    private final BlockingQueue<Entry> queue;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Inject
+    public PositionBatchWriter(
+            Config config, Storage storage, StatisticsManager statisticsManager, PositionJournal positionJournal) {
+        this.storage = storage;
+        this.statisticsManager = statisticsManager;
+        this.positionJournal = positionJournal;
+        batchSize = config.getInteger(Keys.DATABASE_BATCH_SIZE);
+        batchDelay = config.getLong(Keys.DATABASE_BATCH_DELAY);
+        queue = batchSize > 0 ? new ArrayBlockingQueue<>(config.getInteger(Keys.DATABASE_BATCH_QUEUE_SIZE)) : null;
+    }
+
+    @Override
+    public void start() {
+        if (batchSize > 0) {
+            running = true;
+            thread = new Thread(this::run, "position-batch-writer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        if (thread != null) {
+            lock.writeLock().lock();
+            try {
+                running = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            thread.join();
+            thread = null;
+            List<Entry> batch = new ArrayList<>();
+            while (queue.drainTo(batch, batchSize) > 0) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Store position in the database. Callback is invoked after the position is committed, which might happen on a
+     * different thread if batching is enabled. While the journal has positions waiting for replay, new positions only
+     * go to the journal to keep them in order. If the journal is full at that point, the position is lost.
+     */
+    public void write(Position position, Runnable callback) {
+        if (positionJournal.hasPending()) {
+            if (!positionJournal.append(position)) {
+                LOGGER.warn("Failed to journal position");
+            }
+            callback.run();
+        } else if (!enqueue(new Entry(position, callback))) {
+            store(position);
+            callback.run();
+        }
+    }
+
+    /**
+     * Add entry to the batch queue. Entries are only accepted while running, so the final drain in {@link #stop()}
+     * sees every accepted entry.
+     */
+    private boolean enqueue(Entry entry) {
+        lock.readLock().lock();
+        try {
+            return running && queue.offer(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Entry entry = queue.poll(batchDelay, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    continue;
+                }
+                batch.add(entry);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDelay);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    entry = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (entry == null) {
+                        break;
+                    }
+                    batch.add(entry);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        List<Position> positions = batch.stream().map(Entry::position).toList();
+        try {
+            long[] ids = storage.addObjects(positions, new Request(new Columns.Exclude("id")));
+            for (int index = 0; index < positions.size(); index++) {
+                Position position = positions.get(index);
+                position.setId(ids[index]);
+                statisticsManager.registerMessageStored(position.getDeviceId(), position.getProtocol());
+            }
+        } catch (StorageException error) {
+            LOGGER.warn("Failed to store position batch", error);
+            positions.forEach(this::store);
+        }
+        for (Entry entry : batch) {
+            try {
+                entry.callback().run();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Position callback failed", e);
+            }
+        }
+    }
+
+    private void store(Position position) {
+        try {
+            position.setId(storage.addObject(position, new Request(new Columns.Exclude("id"))));
+            statisticsManager.registerMessageStored(position.getDeviceId(), position.getProtocol());
+        } catch (Exception error) {
+            if (!positionJournal.append(position)) {
+                LOGGER.warn("Failed to store position", error);
+            } else {
+                LOGGER.debug("Position journaled", error);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.database;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only local journal for positions that could not be stored in the database. Journal is split into
+ * memory-mapped segment files. Each segment starts with the offset of the first record that is not yet replayed,
+ * followed by records consisting of payload length, CRC32 checksum and JSON encoded position. Records are replayed
+ * into the storage in order and in batches once the database is available again and fully replayed segments are
+ * deleted. Replay continues without delay while records remain.
+ * <p>
+ * A record that can't be decoded or is rejected by the database is moved to the quarantine file, so it doesn't block
+ * the records behind it. Rejections caused by the database being unavailable are retried indefinitely, other errors
+ * only a limited number of times.
+ */
+@Singleton
+public class PositionJournal implements LifecycleObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PositionJournal.class);
+
+    private static final String SUFFIX = ".journal";
+    private static final String QUARANTINE = "quarantine.json";
+    private static final int REPLAY_ATTEMPTS = 10;
+    private static final int HEADER_SIZE = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+    private static final long REPLAY_INTERVAL = 5;
+    private static final int REPLAY_BATCH_SIZE = 500;
+    private static final int REPLAY_BATCHES = 20;
+
+    private static final class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int readOffset;
+        private int writeOffset;
+
+        private Segment(Path path, int size) throws IOException {
+            this.path = path;
+            channel = FileChannel.open(
+                    path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+
+        private void delete() throws IOException {
+            close();
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private final Storage storage;
+    private final ObjectMapper objectMapper;
+    private final StatisticsManager statisticsManager;
+    private final CacheManager cacheManager;
+    private final DeviceStateWriter deviceStateWriter;
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxSegments;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Object replayLock = new Object();
+    private volatile boolean pending;
+    private boolean open;
+    private long nextSequence;
+    private int attempts;
+
+    private ScheduledExecutorService executor;
+
+    @Inject
+    public PositionJournal(
+            Config config, Storage storage, ObjectMapper objectMapper, StatisticsManager statisticsManager,
+            CacheManager cacheManager, DeviceStateWriter deviceStateWriter) {
+        this.storage = storage;
+        this.objectMapper = objectMapper;
+        this.statisticsManager = statisticsManager;
+        this.cacheManager = cacheManager;
+        this.deviceStateWriter = deviceStateWriter;
+        String path = config.getString(Keys.DATABASE_JOURNAL_PATH);
+        directory = path != null ? Paths.get(path) : null;
+        segmentSize = config.getInteger(Keys.DATABASE_JOURNAL_SEGMENT_SIZE);
+        maxSegments = Math.max(config.getLong(Keys.DATABASE_JOURNAL_MAX_SIZE) / segmentSize, 1);
+    }
+
+    @Override
+    public void start() throws IOException {
+        if (directory != null) {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(directory)) {
+                files = stream.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+            }
+            synchronized (this) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    long sequence = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                    Segment segment = new Segment(file, segmentSize);
+                    segment.readOffset = Math.max((int) segment.buffer.getLong(0), HEADER_SIZE);
+                    segment.writeOffset = HEADER_SIZE;
+                    while (read(segment, segment.writeOffset) != null) {
+                        segment.writeOffset += RECORD_HEADER_SIZE + segment.buffer.getInt(segment.writeOffset);
+                    }
+                    segments.add(segment);
+                    nextSequence = sequence + 1;
+                }
+                pending = !segments.isEmpty();
+                open = true;
+            }
+            if (!segments.isEmpty()) {
+                LOGGER.info("Position journal contains {} segments", segments.size());
+            }
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            executor.schedule(this::runReplay, REPLAY_INTERVAL, TimeUnit.SECONDS);
+            this.executor = executor;
+        }
+    }
+
+    private void runReplay() {
+        boolean remaining = replay();
+        ScheduledExecutorService executor = this.executor;
+        if (executor != null) {
+            try {
+                executor.schedule(this::runReplay, remaining ? 0 : REPLAY_INTERVAL, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Position journal replay stopped", e);
+            }
+        }
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(REPLAY_INTERVAL, TimeUnit.SECONDS);
+            executor = null;
+            synchronized (replayLock) {
+                synchronized (this) {
+                    for (Segment segment : segments) {
+                        try {
+                            segment.close();
+                        } catch (IOException e) {
+                            LOGGER.warn("Position journal close error", e);
+                        }
+                    }
+                    segments.clear();
+                    pending = false;
+                    open = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if there are positions waiting for replay. New positions should be journaled as well in that case to
+     * keep them in order.
+     */
+    public boolean hasPending() {
+        return pending;
+    }
+
+    /**
+     * Append position to the journal. Returns false if journal is disabled, full or can't be written.
+     */
+    public boolean append(Position position) {
+        if (directory == null) {
+            return false;
+        }
+        byte[] data;
+        try {
+            data = objectMapper.writeValueAsBytes(position);
+        } catch (IOException e) {
+            LOGGER.warn("Position journal encoding error", e);
+            return false;
+        }
+        if (RECORD_HEADER_SIZE + data.length > segmentSize - HEADER_SIZE) {
+            return false;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(data);
+        synchronized (this) {
+            if (!open) {
+                return false;
+            }
+            try {
+                Segment segment = segments.peekLast();
+                if (segment == null || segment.writeOffset + RECORD_HEADER_SIZE + data.length > segmentSize) {
+                    if (segments.size() >= maxSegments) {
+                        LOGGER.warn("Position journal is full");
+                        return false;
+                    }
+                    Path path = directory.resolve(String.format("%020d%s", nextSequence, SUFFIX));
+                    segment = new Segment(path, segmentSize);
+                    nextSequence += 1;
+                    segment.readOffset = HEADER_SIZE;
+                    segment.writeOffset = HEADER_SIZE;
+                    segment.buffer.putLong(0, HEADER_SIZE);
+                    segments.add(segment);
+                    pending = true;
+                }
+                int offset = segment.writeOffset;
+                segment.buffer.put(offset + RECORD_HEADER_SIZE, data);
+                segment.buffer.putInt(offset + Integer.BYTES, (int) checksum.getValue());
+                segment.buffer.putInt(offset, data.length);
+                segment.buffer.force(offset, RECORD_HEADER_SIZE + data.length);
+                segment.writeOffset += RECORD_HEADER_SIZE + data.length;
+                return true;
+            } catch (IOException e) {
+                LOGGER.warn("Position journal write error", e);
+                return false;
+            }
+        }
+    }
+
+    private static byte[] read(Segment segment, int offset) {
+        if (offset + RECORD_HEADER_SIZE > segment.buffer.capacity()) {
+            return null;
+        }
+        int length = segment.buffer.getInt(offset);
+        if (length <= 0 || offset + RECORD_HEADER_SIZE + length > segment.buffer.capacity()) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        segment.buffer.get(offset + RECORD_HEADER_SIZE, data);
+        CRC32 checksum = new CRC32();
+        checksum.update(data);
+        if ((int) checksum.getValue() != segment.buffer.getInt(offset + Integer.BYTES)) {
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Read up to the given number of records that are not replayed yet. All returned records come from the first
+     * segment, so they can be committed in order.
+     */
+    private synchronized List<byte[]> next(int limit) throws IOException {
+        List<byte[]> result = new ArrayList<>();
+        while (!segments.isEmpty()) {
+            Segment segment = segments.peekFirst();
+            int offset = segment.readOffset;
+            while (result.size() < limit && offset < segment.writeOffset) {
+                byte[] data = read(segment, offset);
+                if (data == null) {
+                    break;
+                }
+                result.add(data);
+                offset += RECORD_HEADER_SIZE + data.length;
+            }
+            if (!result.isEmpty()) {
+                return result;
+            }
+            if (segment.readOffset < segment.writeOffset) {
+                LOGGER.warn("Position journal segment {} is corrupted", segment.path.getFileName());
+                segment.readOffset = segment.writeOffset;
+            }
+            segments.removeFirst();
+            pending = !segments.isEmpty();
+            segment.delete();
+        }
+        return result;
+    }
+
+    private synchronized void commit(int length) {
+        Segment segment = segments.peekFirst();
+        segment.readOffset += RECORD_HEADER_SIZE + length;
+        segment.buffer.putLong(0, segment.readOffset);
+        attempts = 0;
+    }
+
+    private void quarantine(byte[] data, Exception error) {
+        LOGGER.warn("Position journal record moved to quarantine", error);
+        ByteBuffer record = ByteBuffer.allocate(data.length + 1).put(data).put((byte) '\n');
+        try (FileChannel channel = FileChannel.open(
+                directory.resolve(QUARANTINE), StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            channel.write(record.flip());
+        } catch (IOException e) {
+            LOGGER.warn("Position journal quarantine error", e);
+        }
+        commit(data.length);
+    }
+
+    private static boolean isUnavailable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLNonTransientConnectionException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isRejected(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLIntegrityConstraintViolationException || cause instanceof SQLDataException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                String state = sqlException.getSQLState();
+                if (state.startsWith("22") || state.startsWith("23")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void replayed(Position position, int length) {
+        statisticsManager.registerMessageStored(position.getDeviceId(), position.getProtocol());
+        commit(length);
+
+        Position last = cacheManager.getPosition(position.getDeviceId());
+        if (last != null && last.getId() == 0 && last.getFixTime().equals(position.getFixTime())) {
+            last.setId(position.getId());
+            deviceStateWriter.updatePositionId(position.getDeviceId(), position.getId());
+        }
+    }
+
+    /**
+     * Replay journaled positions into the storage in batches. Stops at the first record that can't be stored right
+     * now, so the order is preserved. If a batch fails for another reason, its records are retried one by one to
+     * find the one that fails. Returns true if the batch limit was reached and more records are waiting.
+     */
+    boolean replay() {
+        synchronized (replayLock) {
+            int count = 0;
+            int batches = 0;
+            int single = 0;
+            try {
+                List<byte[]> records;
+                while (batches < REPLAY_BATCHES && !(records = next(single > 0 ? 1 : REPLAY_BATCH_SIZE)).isEmpty()) {
+                    batches += 1;
+                    List<Position> positions = new ArrayList<>(records.size());
+                    IOException decodeError = null;
+                    for (byte[] data : records) {
+                        try {
+                            positions.add(objectMapper.readValue(data, Position.class));
+                        } catch (IOException e) {
+                            decodeError = e;
+                            break;
+                        }
+                    }
+                    if (positions.isEmpty()) {
+                        quarantine(records.get(0), decodeError);
+                        single = Math.max(single - 1, 0);
+                        continue;
+                    }
+                    try {
+                        long[] ids = storage.addObjects(positions, new Request(new Columns.Exclude("id")));
+                        for (int index = 0; index < positions.size(); index++) {
+                            Position position = positions.get(index);
+                            position.setId(ids[index]);
+                            replayed(position, records.get(index).length);
+                        }
+                        count += positions.size();
+                        single = Math.max(single - positions.size(), 0);
+                    } catch (StorageException e) {
+                        if (isUnavailable(e)) {
+                            LOGGER.debug("Position journal replay postponed", e);
+                            return false;
+                        } else if (positions.size() > 1) {
+                            single = positions.size();
+                        } else if (isRejected(e) || ++attempts >= REPLAY_ATTEMPTS) {
+                            quarantine(records.get(0), e);
+                            single = Math.max(single - 1, 0);
+                        } else {
+                            LOGGER.debug("Position journal replay failed", e);
+                            return false;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Position journal replay error", e);
+                return false;
+            } finally {
+                if (count > 0) {
+                    LOGGER.info("Position journal replayed {} positions", count);
+                }
+            }
+            return batches >= REPLAY_BATCHES && pending;
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.StatisticsManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for asynchronous geocoding requests. Concurrent lookups for the same grid cell share a single
+ * provider request. Coordinates are only rounded to grid cells when a geocoder cache is configured, because the cache
+ * returns the same address for the whole cell anyway. Without a cache, only lookups for identical coordinates are
+ * shared. Requests are optionally limited by rate and executed on a bounded thread pool. When the provider
+ * is saturated, lookups complete immediately without an address instead of waiting. Synchronous lookups are passed
+ * through directly.
+ */
+public class AsyncGeocoder implements Geocoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncGeocoder.class);
+
+    private final Geocoder geocoder;
+    private final double scale;
+    private final ExecutorService executor;
+    private final double rateLimit;
+
+    private final Map<CellKey, List<ReverseGeocoderCallback>> pending = new ConcurrentHashMap<>();
+
+    private double permits;
+    private long lastRefill;
+
+    public AsyncGeocoder(Config config, Geocoder geocoder) {
+        this.geocoder = geocoder;
+        if (config.getInteger(Keys.GEOCODER_CACHE_SIZE) > 0 || config.hasKey(Keys.GEOCODER_CACHE_PATH)) {
+            scale = CellKey.getScale(config);
+        } else {
+            scale = 0;
+        }
+        int threads = config.getInteger(Keys.GEOCODER_THREADS);
+        if (threads > 0) {
+            executor = new ThreadPoolExecutor(
+                    threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(config.getInteger(Keys.GEOCODER_QUEUE_SIZE)),
+                    new DefaultThreadFactory("geocoder", true));
+        } else {
+            executor = null;
+        }
+        rateLimit = config.getDouble(Keys.GEOCODER_RATE_LIMIT);
+        permits = rateLimit;
+        lastRefill = System.nanoTime();
+    }
+
+    @Override
+    public void setStatisticsManager(StatisticsManager statisticsManager) {
+        geocoder.setStatisticsManager(statisticsManager);
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (rateLimit <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        permits = Math.min(rateLimit, permits + (now - lastRefill) * rateLimit / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+        if (permits >= 1) {
+            permits -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private CellKey getKey(double latitude, double longitude) {
+        if (scale > 0) {
+            return CellKey.of(latitude, longitude, scale);
+        } else {
+            return new CellKey(Double.doubleToLongBits(latitude), Double.doubleToLongBits(longitude));
+        }
+    }
+
+    private void complete(CellKey key, String address, Throwable error) {
+        List<ReverseGeocoderCallback> callbacks = pending.remove(key);
+        if (callbacks == null) {
+            return;
+        }
+        for (ReverseGeocoderCallback callback : callbacks) {
+            if (error != null) {
+                callback.onFailure(error);
+            } else {
+                callback.onSuccess(address);
+            }
+        }
+    }
+
+    private void request(CellKey key, double latitude, double longitude) {
+        if (!tryAcquire()) {
+            LOGGER.debug("Geocoding skipped due to rate limit");
+            complete(key, null, null);
+            return;
+        }
+        if (executor != null) {
+            executor.execute(() -> {
+                try {
+                    complete(key, geocoder.getAddress(latitude, longitude, null), null);
+                } catch (RuntimeException e) {
+                    complete(key, null, e);
+                }
+            });
+        } else {
+            geocoder.getAddress(latitude, longitude, new ReverseGeocoderCallback() {
+                @Override
+                public void onSuccess(String address) {
+                    complete(key, address, null);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    complete(key, null, e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public String getAddress(double latitude, double longitude, ReverseGeocoderCallback callback) {
+        if (callback == null) {
+            return geocoder.getAddress(latitude, longitude, null);
+        }
+        CellKey key = getKey(latitude, longitude);
+        boolean[] first = new boolean[1];
+        pending.compute(key, (k, callbacks) -> {
+            if (callbacks == null) {
+                callbacks = new ArrayList<>();
+                first[0] = true;
+            }
+            callbacks.add(callback);
+            return callbacks;
+        });
+        if (first[0]) {
+            try {
+                request(key, latitude, longitude);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Geocoding skipped due to full queue");
+                complete(key, null, null);
+            } catch (RuntimeException e) {
+                complete(key, null, e);
+            }
+        }
+        return null;
+    }
+
+}
@@ -25,8 +25,8 @@ import jakarta.ws.rs.client.Client;
  */
 public class BanGeocoder extends GeocodeJsonGeocoder {
 
-    public BanGeocoder(Client client, int cacheSize, AddressFormat addressFormat) {
-        super(client, "https://api-adresse.data.gouv.fr/reverse/", null, null, cacheSize, addressFormat);
+    public BanGeocoder(Client client, AddressFormat addressFormat) {
+        super(client, "https://api-adresse.data.gouv.fr/reverse/", null, null, addressFormat);
     }
 
     @Override
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import org.traccar.database.StatisticsManager;
+
+/**
+ * Geocoder decorator returning stored addresses and storing addresses resolved by the underlying geocoder.
+ */
+public abstract class BaseCacheGeocoder<K> implements Geocoder {
+
+    private final Geocoder geocoder;
+
+    protected BaseCacheGeocoder(Geocoder geocoder) {
+        this.geocoder = geocoder;
+    }
+
+    protected abstract K getKey(double latitude, double longitude);
+
+    protected abstract String get(K key);
+
+    protected abstract void put(K key, String address);
+
+    @Override
+    public void setStatisticsManager(StatisticsManager statisticsManager) {
+        geocoder.setStatisticsManager(statisticsManager);
+    }
+
+    @Override
+    public String getAddress(double latitude, double longitude, ReverseGeocoderCallback callback) {
+        K key = getKey(latitude, longitude);
+        String address = get(key);
+        if (address != null) {
+            if (callback != null) {
+                callback.onSuccess(address);
+            }
+            return address;
+        }
+
+        if (callback != null) {
+            return geocoder.getAddress(latitude, longitude, new ReverseGeocoderCallback() {
+                @Override
+                public void onSuccess(String result) {
+                    if (result != null) {
+                        put(key, result);
+                    }
+                    callback.onSuccess(result);
+                }
+
+                @Override
+                public void onFailure(Throwable e) {
+                    callback.onFailure(e);
+                }
+            });
+        } else {
+            address = geocoder.getAddress(latitude, longitude, null);
+            if (address != null) {
+                put(key, address);
+            }
+            return address;
+        }
+    }
+
+}
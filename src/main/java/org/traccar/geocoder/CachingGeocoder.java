@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.LruCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Address cache in front of any geocoder. Coordinates are rounded to a grid, so positions within the same cell share
+ * one lookup.
+ */
+public class CachingGeocoder extends BaseCacheGeocoder<CellKey> {
+
+    private final double scale;
+    private final LruCache<CellKey, String> cache;
+
+    public CachingGeocoder(Config config, Geocoder geocoder) {
+        super(geocoder);
+        scale = CellKey.getScale(config);
+        cache = new LruCache<>(
+                config.getInteger(Keys.GEOCODER_CACHE_SIZE),
+                TimeUnit.SECONDS.toMillis(config.getLong(Keys.GEOCODER_CACHE_EXPIRATION)));
+    }
+
+    public LruCache.Statistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    @Override
+    protected CellKey getKey(double latitude, double longitude) {
+        return CellKey.of(latitude, longitude, scale);
+    }
+
+    @Override
+    protected String get(CellKey key) {
+        return cache.get(key);
+    }
+
+    @Override
+    protected void put(CellKey key, String address) {
+        cache.put(key, address);
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+/**
+ * Grid cell of coordinates rounded to the configured number of decimal places.
+ */
+record CellKey(long latitude, long longitude) {
+
+    static double getScale(Config config) {
+        return Math.pow(10, config.getInteger(Keys.GEOCODER_CACHE_PRECISION));
+    }
+
+    static CellKey of(double latitude, double longitude, double scale) {
+        return new CellKey(Math.round(latitude * scale), Math.round(longitude * scale));
+    }
+
+}
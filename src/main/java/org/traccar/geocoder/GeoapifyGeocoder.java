@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,8 +32,8 @@ public class GeoapifyGeocoder extends JsonGeocoder {
         return url;
     }
 
-    public GeoapifyGeocoder(Client client, String key, String language, int cacheSize, AddressFormat addressFormat) {
-        super(client, formatUrl(key, language), cacheSize, addressFormat);
+    public GeoapifyGeocoder(Client client, String key, String language, AddressFormat addressFormat) {
+        super(client, formatUrl(key, language), addressFormat);
     }
 
     @Override
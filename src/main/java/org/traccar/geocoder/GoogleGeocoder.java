@@ -1,5 +1,5 @@
 /*
- * Copyright 2012 - 2017 Anton Tananaev (anton@traccar.org)
+ * Copyright 2012 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,8 +36,8 @@ public class GoogleGeocoder extends JsonGeocoder {
     }
 
     public GoogleGeocoder(
-            Client client, String url, String key, String language, int cacheSize, AddressFormat addressFormat) {
-        super(client, formatUrl(url, key, language), cacheSize, addressFormat);
+            Client client, String url, String key, String language, AddressFormat addressFormat) {
+        super(client, formatUrl(url, key, language), addressFormat);
     }
 
     @Override
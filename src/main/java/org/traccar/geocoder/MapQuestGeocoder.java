@@ -1,6 +1,6 @@
 /*
  * Copyright 2014 - 2015 Stefaan Van Dooren (stefaan.vandooren@gmail.com)
- * Copyright 2017 - 2020 Anton Tananaev (anton@traccar.org)
+ * Copyright 2017 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,8 +30,8 @@ public class MapQuestGeocoder extends JsonGeocoder {
         return url;
     }
 
-    public MapQuestGeocoder(Client client, String url, String key, int cacheSize, AddressFormat addressFormat) {
-        super(client, formatUrl(url, key), cacheSize, addressFormat);
+    public MapQuestGeocoder(Client client, String url, String key, AddressFormat addressFormat) {
+        super(client, formatUrl(url, key), addressFormat);
     }
 
     @Override
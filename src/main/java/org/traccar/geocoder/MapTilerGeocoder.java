@@ -1,5 +1,5 @@
 /*
- * Copyright 2021 Anton Tananaev (anton@traccar.org)
+ * Copyright 2021 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,8 @@ import jakarta.ws.rs.client.Client;
 
 public class MapTilerGeocoder extends JsonGeocoder {
 
-    public MapTilerGeocoder(Client client, String key, int cacheSize, AddressFormat addressFormat) {
-        super(client, "https://api.maptiler.com/geocoding/%2$f,%1$f.json?key=" + key, cacheSize, addressFormat);
+    public MapTilerGeocoder(Client client, String key, AddressFormat addressFormat) {
+        super(client, "https://api.maptiler.com/geocoding/%2$f,%1$f.json?key=" + key, addressFormat);
     }
 
     @Override
@@ -26,8 +26,8 @@ public class MapboxGeocoder extends JsonGeocoder {
         return "https://api.mapbox.com/geocoding/v5/mapbox.places/%2$f,%1$f.json?access_token=" + key;
     }
 
-    public MapboxGeocoder(Client client, String key, int cacheSize, AddressFormat addressFormat) {
-        super(client, formatUrl(key), cacheSize, addressFormat);
+    public MapboxGeocoder(Client client, String key, AddressFormat addressFormat) {
+        super(client, formatUrl(key), addressFormat);
     }
 
     @Override
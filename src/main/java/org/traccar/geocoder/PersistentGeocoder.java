@@ -0,0 +1,203 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geocoder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Address cache stored in a memory-mapped file, so it survives restarts. File starts with a magic number and the end
+ * offset of valid data, followed by records consisting of payload length, CRC32 checksum, rounded coordinates,
+ * language and address. Only record offsets are kept in memory. When the file is full, it is compacted in place,
+ * keeping the most recently used records that fit into half of the file.
+ */
+public class PersistentGeocoder extends BaseCacheGeocoder<PersistentGeocoder.Key> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersistentGeocoder.class);
+
+    private static final int MAGIC = 0x47454f31;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int KEY_SIZE = Long.BYTES * 2 + Short.BYTES;
+
+    record Key(CellKey cell, String language) {
+    }
+
+    private final double scale;
+    private final String language;
+    private final MappedByteBuffer buffer;
+
+    private final Map<Key, Integer> index = new LinkedHashMap<>(16, 0.75f, true);
+    private int writeOffset;
+
+    public PersistentGeocoder(Config config, Geocoder geocoder) throws IOException {
+        super(geocoder);
+        scale = CellKey.getScale(config);
+        language = Objects.requireNonNullElse(config.getString(Keys.GEOCODER_LANGUAGE), "");
+        Path path = Paths.get(config.getString(Keys.GEOCODER_CACHE_PATH));
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (FileChannel channel = FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, config.getInteger(Keys.GEOCODER_CACHE_FILE_SIZE));
+        }
+        load();
+    }
+
+    private void setWriteOffset(int writeOffset) {
+        this.writeOffset = writeOffset;
+        buffer.putInt(Integer.BYTES, writeOffset);
+    }
+
+    private void load() {
+        int end = buffer.getInt(Integer.BYTES);
+        if (buffer.getInt(0) != MAGIC || end < HEADER_SIZE || end > buffer.capacity()) {
+            buffer.putInt(0, MAGIC);
+            setWriteOffset(HEADER_SIZE);
+            return;
+        }
+        int offset = HEADER_SIZE;
+        while (offset < end) {
+            Key key = readKey(offset, end);
+            if (key == null) {
+                break;
+            }
+            index.put(key, offset);
+            offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+        }
+        setWriteOffset(offset);
+        if (!index.isEmpty()) {
+            LOGGER.info("Geocoder cache contains {} addresses", index.size());
+        }
+    }
+
+    private Key readKey(int offset, int end) {
+        int length = buffer.getInt(offset);
+        if (length < KEY_SIZE || offset + RECORD_HEADER_SIZE + length > end) {
+            return null;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.slice(offset + RECORD_HEADER_SIZE, length));
+        if ((int) checksum.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+            return null;
+        }
+        int position = offset + RECORD_HEADER_SIZE;
+        CellKey cell = new CellKey(buffer.getLong(position), buffer.getLong(position + Long.BYTES));
+        byte[] data = new byte[buffer.getShort(position + Long.BYTES * 2)];
+        buffer.get(position + KEY_SIZE, data);
+        return new Key(cell, new String(data, StandardCharsets.UTF_8));
+    }
+
+    private String readAddress(int offset) {
+        int length = buffer.getInt(offset);
+        int position = offset + RECORD_HEADER_SIZE;
+        int languageLength = buffer.getShort(position + Long.BYTES * 2);
+        byte[] data = new byte[length - KEY_SIZE - languageLength];
+        buffer.get(position + KEY_SIZE + languageLength, data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    private void compact() {
+        List<Map.Entry<Key, Integer>> entries = new ArrayList<>(index.entrySet());
+        int budget = (buffer.capacity() - HEADER_SIZE) / 2;
+        int start = entries.size();
+        int total = 0;
+        while (start > 0) {
+            int recordSize = RECORD_HEADER_SIZE + buffer.getInt(entries.get(start - 1).getValue());
+            if (total + recordSize > budget) {
+                break;
+            }
+            total += recordSize;
+            start -= 1;
+        }
+
+        byte[] data = new byte[total];
+        int position = 0;
+        index.clear();
+        for (var entry : entries.subList(start, entries.size())) {
+            int recordSize = RECORD_HEADER_SIZE + buffer.getInt(entry.getValue());
+            buffer.get(entry.getValue(), data, position, recordSize);
+            index.put(entry.getKey(), HEADER_SIZE + position);
+            position += recordSize;
+        }
+
+        setWriteOffset(HEADER_SIZE);
+        buffer.put(HEADER_SIZE, data);
+        setWriteOffset(HEADER_SIZE + total);
+        LOGGER.debug("Geocoder cache compacted to {} addresses", index.size());
+    }
+
+    @Override
+    protected Key getKey(double latitude, double longitude) {
+        return new Key(CellKey.of(latitude, longitude, scale), language);
+    }
+
+    @Override
+    protected synchronized String get(Key key) {
+        Integer offset = index.get(key);
+        return offset != null ? readAddress(offset) : null;
+    }
+
+    @Override
+    protected synchronized void put(Key key, String address) {
+        byte[] languageData = key.language().getBytes(StandardCharsets.UTF_8);
+        byte[] addressData = address.getBytes(StandardCharsets.UTF_8);
+        int length = KEY_SIZE + languageData.length + addressData.length;
+        if (RECORD_HEADER_SIZE + length > (buffer.capacity() - HEADER_SIZE) / 2) {
+            return;
+        }
+        if (writeOffset + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+            compact();
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.putLong(key.cell().latitude());
+        payload.putLong(key.cell().longitude());
+        payload.putShort((short) languageData.length);
+        payload.put(languageData);
+        payload.put(addressData);
+        CRC32 checksum = new CRC32();
+        checksum.update(payload.array());
+
+        int offset = writeOffset;
+        buffer.put(offset + RECORD_HEADER_SIZE, payload.array());
+        buffer.putInt(offset + Integer.BYTES, (int) checksum.getValue());
+        buffer.putInt(offset, length);
+        index.put(key, offset);
+        setWriteOffset(offset + RECORD_HEADER_SIZE + length);
+    }
+
+}
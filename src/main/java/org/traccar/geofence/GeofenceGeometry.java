@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2020 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,9 @@ import java.text.ParseException;
 
 public abstract class GeofenceGeometry {
 
+    private static final double EARTH_RADIUS = 6378137;
+    private static final double BOUNDS_MARGIN = 1.01;
+
     public abstract boolean containsPoint(Config config, Geofence geofence, double latitude, double longitude);
 
     public abstract double calculateArea();
@@ -30,6 +33,39 @@ public abstract class GeofenceGeometry {
 
     public abstract void fromWkt(String wkt) throws ParseException;
 
+    /**
+     * Bounding box as minimum latitude, minimum longitude, maximum latitude and maximum longitude. Geometry doesn't
+     * contain any point outside of it. Returns null if the box is unknown, for example for geometries crossing the
+     * antimeridian.
+     */
+    public double[] getBounds(Config config, Geofence geofence) {
+        return null;
+    }
+
+    /**
+     * Expand box by the distance in meters. Returns null if the result would reach a pole or cross the antimeridian.
+     */
+    protected static double[] expandBounds(
+            double minLat, double minLon, double maxLat, double maxLon, double distance) {
+        double deltaLat = Math.toDegrees(distance * BOUNDS_MARGIN / EARTH_RADIUS);
+        double maxAbsLat = Math.max(Math.abs(minLat), Math.abs(maxLat)) + deltaLat;
+        if (maxAbsLat >= 90) {
+            return null;
+        }
+        double deltaLon = deltaLat / Math.cos(Math.toRadians(maxAbsLat));
+        if (minLon - deltaLon < -180 || maxLon + deltaLon > 180) {
+            return null;
+        }
+        return new double[] {minLat - deltaLat, minLon - deltaLon, maxLat + deltaLat, maxLon + deltaLon};
+    }
+
+    /**
+     * Maximum distance in meters between a great circle segment and the box of its ends.
+     */
+    protected static double segmentBulge(double length, double latitude) {
+        return length * length / (8 * EARTH_RADIUS) * Math.tan(Math.toRadians(Math.min(Math.abs(latitude), 89)));
+    }
+
     public static class Coordinate {
 
         private double lat;
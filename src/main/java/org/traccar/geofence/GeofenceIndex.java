@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geofence;
+
+import org.traccar.config.Config;
+import org.traccar.model.Geofence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable R-tree of geofence bounding boxes packed using the sort-tile-recursive algorithm. Exact containment check
+ * is only done for geofences with a box containing the point. Geometries without known bounds are always checked.
+ */
+public class GeofenceIndex {
+
+    private static final int NODE_SIZE = 16;
+
+    private record Entry(Geofence geofence, double[] bounds) {
+    }
+
+    private final List<Geofence> unbounded = new ArrayList<>();
+    private final Geofence[] geofences;
+    private final double[][] levels;
+
+    public GeofenceIndex(Config config, Collection<Geofence> items) {
+        List<Entry> entries = new ArrayList<>();
+        for (Geofence geofence : items) {
+            double[] bounds = geofence.getGeometry().getBounds(config, geofence);
+            if (bounds != null) {
+                entries.add(new Entry(geofence, bounds));
+            } else {
+                unbounded.add(geofence);
+            }
+        }
+
+        int leafCount = (entries.size() + NODE_SIZE - 1) / NODE_SIZE;
+        int sliceSize = (int) Math.ceil(Math.sqrt(leafCount)) * NODE_SIZE;
+        entries.sort(Comparator.comparingDouble(entry -> entry.bounds()[1] + entry.bounds()[3]));
+        for (int i = 0; i < entries.size(); i += sliceSize) {
+            entries.subList(i, Math.min(i + sliceSize, entries.size()))
+                    .sort(Comparator.comparingDouble(entry -> entry.bounds()[0] + entry.bounds()[2]));
+        }
+
+        geofences = new Geofence[entries.size()];
+        double[] level = new double[entries.size() * 4];
+        for (int i = 0; i < entries.size(); i++) {
+            geofences[i] = entries.get(i).geofence();
+            System.arraycopy(entries.get(i).bounds(), 0, level, i * 4, 4);
+        }
+
+        List<double[]> result = new ArrayList<>();
+        result.add(level);
+        while (level.length > 4) {
+            int count = level.length / 4;
+            double[] parent = new double[(count + NODE_SIZE - 1) / NODE_SIZE * 4];
+            for (int i = 0; i < count; i++) {
+                int offset = i / NODE_SIZE * 4;
+                if (i % NODE_SIZE == 0) {
+                    System.arraycopy(level, i * 4, parent, offset, 4);
+                } else {
+                    parent[offset] = Math.min(parent[offset], level[i * 4]);
+                    parent[offset + 1] = Math.min(parent[offset + 1], level[i * 4 + 1]);
+                    parent[offset + 2] = Math.max(parent[offset + 2], level[i * 4 + 2]);
+                    parent[offset + 3] = Math.max(parent[offset + 3], level[i * 4 + 3]);
+                }
+            }
+            result.add(parent);
+            level = parent;
+        }
+        levels = result.toArray(new double[0][]);
+    }
+
+    /**
+     * Get ids of all geofences containing the point.
+     */
+    public List<Long> getGeofenceIds(Config config, double latitude, double longitude) {
+        List<Long> result = new ArrayList<>();
+        for (Geofence geofence : unbounded) {
+            if (geofence.getGeometry().containsPoint(config, geofence, latitude, longitude)) {
+                result.add(geofence.getId());
+            }
+        }
+        if (geofences.length > 0) {
+            search(config, levels.length - 1, 0, latitude, longitude, result);
+        }
+        return result;
+    }
+
+    private void search(Config config, int level, int index, double latitude, double longitude, List<Long> result) {
+        double[] boxes = levels[level];
+        int offset = index * 4;
+        if (latitude < boxes[offset] || longitude < boxes[offset + 1]
+                || latitude > boxes[offset + 2] || longitude > boxes[offset + 3]) {
+            return;
+        }
+        if (level == 0) {
+            Geofence geofence = geofences[index];
+            if (geofence.getGeometry().containsPoint(config, geofence, latitude, longitude)) {
+                result.add(geofence.getId());
+            }
+        } else {
+            int end = Math.min((index + 1) * NODE_SIZE, levels[level - 1].length / 4);
+            for (int child = index * NODE_SIZE; child < end; child++) {
+                search(config, level - 1, child, latitude, longitude, result);
+            }
+        }
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2016 - 2022 Anton Tananaev (anton@traccar.org)
+ * Copyright 2016 - 2025 Anton Tananaev (anton@traccar.org)
  * Copyright 2016 Andrey Kunitsyn (andrey@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
@@ -35,12 +35,17 @@ public class GeofencePolyline extends GeofenceGeometry {
         fromWkt(wkt);
     }
 
-    @Override
-    public boolean containsPoint(Config config, Geofence geofence, double latitude, double longitude) {
+    private static double getDistance(Config config, Geofence geofence) {
         double distance = geofence.getDouble("polylineDistance");
         if (distance == 0) {
             distance = config.getDouble(Keys.GEOFENCE_POLYLINE_DISTANCE);
         }
+        return distance;
+    }
+
+    @Override
+    public boolean containsPoint(Config config, Geofence geofence, double latitude, double longitude) {
+        double distance = getDistance(config, geofence);
         for (int i = 1; i < coordinates.size(); i++) {
             if (DistanceCalculator.distanceToLine(
                     latitude, longitude, coordinates.get(i - 1).getLat(), coordinates.get(i - 1).getLon(),
@@ -51,6 +56,32 @@ public class GeofencePolyline extends GeofenceGeometry {
         return false;
     }
 
+    @Override
+    public double[] getBounds(Config config, Geofence geofence) {
+        double minLat = Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE;
+        double maxLat = -Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE;
+        double maxLength = 0;
+        for (int i = 0; i < coordinates.size(); i++) {
+            Coordinate coordinate = coordinates.get(i);
+            minLat = Math.min(minLat, coordinate.getLat());
+            minLon = Math.min(minLon, coordinate.getLon());
+            maxLat = Math.max(maxLat, coordinate.getLat());
+            maxLon = Math.max(maxLon, coordinate.getLon());
+            if (i > 0) {
+                Coordinate previous = coordinates.get(i - 1);
+                maxLength = Math.max(maxLength, DistanceCalculator.distance(
+                        previous.getLat(), previous.getLon(), coordinate.getLat(), coordinate.getLon()));
+            }
+        }
+        if (maxLon - minLon > 180) {
+            return null;
+        }
+        double bulge = segmentBulge(maxLength, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+        return expandBounds(minLat, minLon, maxLat, maxLon, getDistance(config, geofence) + bulge);
+    }
+
     @Override
     public double calculateArea() {
         return 0;
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.geolocation;
+
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.LruCache;
+import org.traccar.model.CellTower;
+import org.traccar.model.Network;
+import org.traccar.model.WifiAccessPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-wide cache of resolved networks in front of any geolocation provider. Networks are identified by sorted cell
+ * tower identifiers including radio type and access point MAC addresses, ignoring signal strength, so devices seeing
+ * the same towers and access points share one lookup.
+ */
+public class CachingGeolocationProvider implements GeolocationProvider {
+
+    private record Key(List<String> cellTowers, List<String> wifiAccessPoints) {
+    }
+
+    private record Location(double latitude, double longitude, double accuracy) {
+    }
+
+    private final GeolocationProvider geolocationProvider;
+    private final LruCache<Key, Location> cache;
+
+    public CachingGeolocationProvider(Config config, GeolocationProvider geolocationProvider) {
+        this.geolocationProvider = geolocationProvider;
+        cache = new LruCache<>(
+                config.getInteger(Keys.GEOLOCATION_CACHE_SIZE),
+                TimeUnit.SECONDS.toMillis(config.getLong(Keys.GEOLOCATION_CACHE_EXPIRATION)));
+    }
+
+    public LruCache.Statistics getStatistics() {
+        return cache.getStatistics();
+    }
+
+    private static Key getKey(Network network) {
+        List<String> cellTowers = new ArrayList<>();
+        if (network.getCellTowers() != null) {
+            for (CellTower cellTower : network.getCellTowers()) {
+                String radioType = cellTower.getRadioType() != null ? cellTower.getRadioType() : network.getRadioType();
+                cellTowers.add(radioType + "-" + cellTower.getMobileCountryCode()
+                        + "-" + cellTower.getMobileNetworkCode()
+                        + "-" + cellTower.getLocationAreaCode() + "-" + cellTower.getCellId());
+            }
+        }
+        List<String> wifiAccessPoints = new ArrayList<>();
+        if (network.getWifiAccessPoints() != null) {
+            for (WifiAccessPoint wifiAccessPoint : network.getWifiAccessPoints()) {
+                if (wifiAccessPoint.getMacAddress() != null) {
+                    wifiAccessPoints.add(
+                            wifiAccessPoint.getMacAddress().replace('-', ':').toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        if (cellTowers.isEmpty() && wifiAccessPoints.isEmpty()) {
+            return null;
+        }
+        Collections.sort(cellTowers);
+        Collections.sort(wifiAccessPoints);
+        return new Key(cellTowers, wifiAccessPoints);
+    }
+
+    @Override
+    public void getLocation(Network network, LocationProviderCallback callback) {
+        Key key = getKey(network);
+        Location location = key != null ? cache.get(key) : null;
+        if (location != null) {
+            callback.onSuccess(location.latitude(), location.longitude(), location.accuracy());
+            return;
+        }
+        geolocationProvider.getLocation(network, new LocationProviderCallback() {
+            @Override
+            public void onSuccess(double latitude, double longitude, double accuracy) {
+                if (key != null) {
+                    cache.put(key, new Location(latitude, longitude, accuracy));
+                }
+                callback.onSuccess(latitude, longitude, accuracy);
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+}
@@ -21,6 +21,7 @@ import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlFeatures;
+import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.MapContext;
 import org.apache.commons.jexl3.introspection.JexlSandbox;
 import org.slf4j.Logger;
@@ -42,11 +43,22 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Date;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
 public class ComputedAttributesHandler extends BasePositionHandler {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ComputedAttributesHandler.class);
 
+    private static final String EARLY_VIEW = "computedAttributesEarly";
+    private static final String LATE_VIEW = "computedAttributesLate";
+
+    private record CompiledScript(String expression, JexlScript script) {
+    }
+
+    private record CompiledAttribute(Attribute attribute, JexlScript script) {
+    }
+
     private final CacheManager cacheManager;
     private final boolean early;
 
@@ -57,6 +69,8 @@ public class ComputedAttributesHandler extends BasePositionHandler {
     private final boolean includeDeviceAttributes;
     private final boolean includeLastAttributes;
 
+    private final Map<Attribute, CompiledScript> scripts = Collections.synchronizedMap(new WeakHashMap<>());
+
     public static class Early extends ComputedAttributesHandler {
         @Inject
         public Early(Config config, CacheManager cacheManager) {
@@ -137,60 +151,91 @@ public class ComputedAttributesHandler extends BasePositionHandler {
         return prefix + Character.toUpperCase(key.charAt(0)) + key.substring(1);
     }
 
+    private JexlScript createScript(String expression) throws JexlException {
+        return engine.createScript(features, engine.createInfo(), expression);
+    }
+
     /**
-     * @deprecated logic needs to be extracted to be used in API resource
+     * Get compiled script for the attribute. Scripts are compiled once per attribute object and shared between devices.
+     * They are weakly keyed by the cached object, so they are dropped once the object is replaced or released by the
+     * cache. If compilation fails, the error is logged once and null is returned until the expression changes.
+     */
+    private JexlScript getScript(Attribute attribute) {
+        CompiledScript compiled = scripts.get(attribute);
+        if (compiled == null || !Objects.equals(compiled.expression(), attribute.getExpression())) {
+            JexlScript script = null;
+            try {
+                script = createScript(attribute.getExpression());
+            } catch (JexlException error) {
+                LOGGER.warn("Attribute {} compilation error", attribute.getId(), error);
+            }
+            compiled = new CompiledScript(attribute.getExpression(), script);
+            scripts.put(attribute, compiled);
+        }
+        return compiled.script();
+    }
+
+    /**
+     * Get compiled attributes for the device in the order of execution. The list is kept as a device view, so it's
+     * rebuilt when any of the linked attributes changes.
+     */
+    private List<CompiledAttribute> getAttributes(long deviceId) {
+        return cacheManager.getDeviceView(deviceId, early ? EARLY_VIEW : LATE_VIEW, () -> cacheManager
+                .getDeviceObjects(deviceId, Attribute.class).stream()
+                .filter(attribute -> attribute.getAttribute() != null && attribute.getPriority() < 0 == early)
+                .sorted(Comparator.comparing(Attribute::getPriority).reversed())
+                .map(attribute -> new CompiledAttribute(attribute, getScript(attribute)))
+                .filter(compiled -> compiled.script() != null)
+                .toList());
+    }
+
+    /**
+     * Compute attribute value for the position. The expression is compiled on every call and never cached, because
+     * it's used by the API to test expressions that are not stored yet.
      */
-    @Deprecated
     public Object computeAttribute(Attribute attribute, Position position) throws JexlException {
-        return engine
-                .createScript(features, engine.createInfo(), attribute.getExpression())
-                .execute(prepareContext(position));
+        return createScript(attribute.getExpression()).execute(prepareContext(position));
     }
 
     @Override
     public void onPosition(Position position, Callback callback) {
-        var attributes = cacheManager.getDeviceObjects(position.getDeviceId(), Attribute.class).stream()
-                .filter(attribute -> attribute.getPriority() < 0 == early)
-                .sorted(Comparator.comparing(Attribute::getPriority).reversed())
-                .toList();
-        for (Attribute attribute : attributes) {
-            if (attribute.getAttribute() != null) {
-                try {
-                    Object result = computeAttribute(attribute, position);
-                    if (result != null) {
-                        switch (attribute.getAttribute()) {
-                            case "valid" -> position.setValid((Boolean) result);
-                            case "latitude" -> position.setLatitude(((Number) result).doubleValue());
-                            case "longitude" -> position.setLongitude(((Number) result).doubleValue());
-                            case "altitude" -> position.setAltitude(((Number) result).doubleValue());
-                            case "speed" -> position.setSpeed(((Number) result).doubleValue());
-                            case "course" -> position.setCourse(((Number) result).doubleValue());
-                            case "address" -> position.setAddress((String) result);
-                            case "accuracy" -> position.setAccuracy(((Number) result).doubleValue());
-                            default -> {
-                                switch (attribute.getType()) {
-                                    case "number" -> {
-                                        Number numberValue = (Number) result;
-                                        position.getAttributes().put(attribute.getAttribute(), numberValue);
-                                    }
-                                    case "boolean" -> {
-                                        Boolean booleanValue = (Boolean) result;
-                                        position.getAttributes().put(attribute.getAttribute(), booleanValue);
-                                    }
-                                    default -> {
-                                        position.getAttributes().put(attribute.getAttribute(), result.toString());
-                                    }
+        for (CompiledAttribute compiled : getAttributes(position.getDeviceId())) {
+            Attribute attribute = compiled.attribute();
+            try {
+                Object result = compiled.script().execute(prepareContext(position));
+                if (result != null) {
+                    switch (attribute.getAttribute()) {
+                        case "valid" -> position.setValid((Boolean) result);
+                        case "latitude" -> position.setLatitude(((Number) result).doubleValue());
+                        case "longitude" -> position.setLongitude(((Number) result).doubleValue());
+                        case "altitude" -> position.setAltitude(((Number) result).doubleValue());
+                        case "speed" -> position.setSpeed(((Number) result).doubleValue());
+                        case "course" -> position.setCourse(((Number) result).doubleValue());
+                        case "address" -> position.setAddress((String) result);
+                        case "accuracy" -> position.setAccuracy(((Number) result).doubleValue());
+                        default -> {
+                            switch (attribute.getType()) {
+                                case "number" -> {
+                                    Number numberValue = (Number) result;
+                                    position.getAttributes().put(attribute.getAttribute(), numberValue);
+                                }
+                                case "boolean" -> {
+                                    Boolean booleanValue = (Boolean) result;
+                                    position.getAttributes().put(attribute.getAttribute(), booleanValue);
+                                }
+                                default -> {
+                                    position.getAttributes().put(attribute.getAttribute(), result.toString());
                                 }
                             }
                         }
-                    } else {
-                        position.removeAttribute(attribute.getAttribute());
                     }
-                } catch (JexlException error) {
-                    LOGGER.warn("Attribute computation error", error);
-                } catch (ClassCastException error) {
-                    LOGGER.warn("Attribute cast error", error);
+                } else {
+                    position.removeAttribute(attribute.getAttribute());
                 }
+            } catch (JexlException error) {
+                LOGGER.warn("Attribute computation error", error);
+            } catch (ClassCastException error) {
+                LOGGER.warn("Attribute cast error", error);
             }
         }
         callback.processed(false);
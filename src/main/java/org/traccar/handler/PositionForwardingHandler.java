@@ -1,5 +1,5 @@
 /*
- * Copyright 2015 - 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2015 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,6 +50,8 @@ public class PositionForwardingHandler extends BasePositionHandler {
 
     private final AtomicInteger deliveryPending;
 
+    private volatile Runnable deliveryListener;
+
     @Inject
     public PositionForwardingHandler(
             Config config, CacheManager cacheManager, Timer timer, @Nullable PositionForwarder positionForwarder) {
@@ -66,6 +68,29 @@ public class PositionForwardingHandler extends BasePositionHandler {
         this.deliveryPending = new AtomicInteger();
     }
 
+    /**
+     * Number of positions not yet delivered, including ones waiting for a retry.
+     */
+    public int getPending() {
+        return deliveryPending.get();
+    }
+
+    /**
+     * Set listener invoked every time a pending delivery completes, successfully or not.
+     */
+    public void setDeliveryListener(Runnable deliveryListener) {
+        this.deliveryListener = deliveryListener;
+    }
+
+    private int delivered() {
+        int pending = deliveryPending.decrementAndGet();
+        Runnable listener = deliveryListener;
+        if (listener != null) {
+            listener.run();
+        }
+        return pending;
+    }
+
     class AsyncRequestAndCallback implements ResultHandler, TimerTask {
 
         private final PositionData positionData;
@@ -89,7 +114,7 @@ public class PositionForwardingHandler extends BasePositionHandler {
                     scheduled = true;
                 }
             } finally {
-                int pending = scheduled ? deliveryPending.get() : deliveryPending.decrementAndGet();
+                int pending = scheduled ? deliveryPending.get() : delivered();
                 LOGGER.warn("Position forwarding failed: " + pending + " pending", throwable);
             }
         }
@@ -101,7 +126,7 @@ public class PositionForwardingHandler extends BasePositionHandler {
         @Override
         public void onResult(boolean success, Throwable throwable) {
             if (success) {
-                deliveryPending.decrementAndGet();
+                delivered();
             } else {
                 retry(throwable);
             }
@@ -117,7 +142,7 @@ public class PositionForwardingHandler extends BasePositionHandler {
                 }
             } finally {
                 if (!sent) {
-                    deliveryPending.decrementAndGet();
+                    delivered();
                 }
             }
         }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2024 Anton Tananaev (anton@traccar.org)
+ * Copyright 2024 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,50 +16,35 @@
 package org.traccar.handler;
 
 import jakarta.inject.Inject;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.traccar.database.DeviceStateWriter;
 import org.traccar.helper.model.PositionUtil;
-import org.traccar.model.Device;
 import org.traccar.model.Position;
 import org.traccar.session.ConnectionManager;
 import org.traccar.session.cache.CacheManager;
-import org.traccar.storage.Storage;
-import org.traccar.storage.StorageException;
-import org.traccar.storage.query.Columns;
-import org.traccar.storage.query.Condition;
-import org.traccar.storage.query.Request;
 
 public class PostProcessHandler extends BasePositionHandler {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(PostProcessHandler.class);
-
     private final CacheManager cacheManager;
-    private final Storage storage;
+    private final DeviceStateWriter deviceStateWriter;
     private final ConnectionManager connectionManager;
 
     @Inject
-    public PostProcessHandler(CacheManager cacheManager, Storage storage, ConnectionManager connectionManager) {
+    public PostProcessHandler(
+            CacheManager cacheManager, DeviceStateWriter deviceStateWriter, ConnectionManager connectionManager) {
         this.cacheManager = cacheManager;
-        this.storage = storage;
+        this.deviceStateWriter = deviceStateWriter;
         this.connectionManager = connectionManager;
     }
 
     @Override
     public void onPosition(Position position, Callback callback) {
-        try {
-            if (PositionUtil.isLatest(cacheManager, position)) {
-                Device updatedDevice = new Device();
-                updatedDevice.setId(position.getDeviceId());
-                updatedDevice.setPositionId(position.getId());
-                storage.updateObject(updatedDevice, new Request(
-                        new Columns.Include("positionId"),
-                        new Condition.Equals("id", updatedDevice.getId())));
-
-                cacheManager.updatePosition(position);
-                connectionManager.updatePosition(true, position);
+        if (PositionUtil.isLatest(cacheManager, position)) {
+            if (position.getId() != 0) {
+                deviceStateWriter.updatePositionId(position.getDeviceId(), position.getId());
             }
-        } catch (StorageException error) {
-            LOGGER.warn("Failed to update device", error);
+
+            cacheManager.updatePosition(position);
+            connectionManager.updatePosition(true, position);
         }
         callback.processed(false);
     }
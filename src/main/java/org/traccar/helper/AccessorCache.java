@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Generated accessors for model properties. Getters are returned as {@link Predicate}, {@link ToIntFunction},
+ * {@link ToLongFunction}, {@link ToDoubleFunction} or {@link Function} depending on the property type, and setters
+ * as {@link BooleanSetter}, {@link ObjIntConsumer}, {@link ObjLongConsumer}, {@link ObjDoubleConsumer} or
+ * {@link BiConsumer}, so primitive values are not boxed. If an accessor can't be generated, reflection is used.
+ */
+public final class AccessorCache {
+
+    private AccessorCache() {
+    }
+
+    public interface BooleanSetter {
+        void accept(Object object, boolean value);
+    }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Map<Class<?>, Supplier<?>> CONSTRUCTORS = new ConcurrentHashMap<>();
+    private static final Map<Method, Object> GETTERS = new ConcurrentHashMap<>();
+    private static final Map<Method, Object> SETTERS = new ConcurrentHashMap<>();
+
+    private static Object invoke(Method method, Object object, Object... arguments) {
+        try {
+            return method.invoke(object, arguments);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Object generate(
+            Class<?> functionalInterface, String name, MethodType erasedType,
+            MethodHandle handle, MethodType instantiatedType) throws Throwable {
+        return LambdaMetafactory.metafactory(
+                LOOKUP, name, MethodType.methodType(functionalInterface), erasedType, handle, instantiatedType)
+                .getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> getConstructor(Class<T> clazz) {
+        return (Supplier<T>) CONSTRUCTORS.computeIfAbsent(clazz, key -> {
+            try {
+                return (Supplier<?>) generate(
+                        Supplier.class, "get", MethodType.methodType(Object.class),
+                        LOOKUP.findConstructor(key, MethodType.methodType(void.class)), MethodType.methodType(key));
+            } catch (Throwable error) {
+                return () -> {
+                    try {
+                        return key.getDeclaredConstructor().newInstance();
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException(e);
+                    }
+                };
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <F> F getGetter(Method method) {
+        return (F) GETTERS.computeIfAbsent(method, key -> {
+            Class<?> type = key.getReturnType();
+            try {
+                MethodHandle handle = LOOKUP.unreflect(key);
+                if (type.equals(boolean.class)) {
+                    return generate(Predicate.class, "test",
+                            MethodType.methodType(boolean.class, Object.class), handle, handle.type());
+                } else if (type.equals(int.class)) {
+                    return generate(ToIntFunction.class, "applyAsInt",
+                            MethodType.methodType(int.class, Object.class), handle, handle.type());
+                } else if (type.equals(long.class)) {
+                    return generate(ToLongFunction.class, "applyAsLong",
+                            MethodType.methodType(long.class, Object.class), handle, handle.type());
+                } else if (type.equals(double.class)) {
+                    return generate(ToDoubleFunction.class, "applyAsDouble",
+                            MethodType.methodType(double.class, Object.class), handle, handle.type());
+                } else {
+                    return generate(Function.class, "apply",
+                            MethodType.methodType(Object.class, Object.class), handle, handle.type());
+                }
+            } catch (Throwable error) {
+                if (type.equals(boolean.class)) {
+                    return (Predicate<Object>) object -> (Boolean) invoke(key, object);
+                } else if (type.equals(int.class)) {
+                    return (ToIntFunction<Object>) object -> (Integer) invoke(key, object);
+                } else if (type.equals(long.class)) {
+                    return (ToLongFunction<Object>) object -> (Long) invoke(key, object);
+                } else if (type.equals(double.class)) {
+                    return (ToDoubleFunction<Object>) object -> (Double) invoke(key, object);
+                } else {
+                    return (Function<Object, Object>) object -> invoke(key, object);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <F> F getSetter(Method method) {
+        return (F) SETTERS.computeIfAbsent(method, key -> {
+            Class<?> type = key.getParameterTypes()[0];
+            try {
+                MethodHandle handle = LOOKUP.unreflect(key);
+                MethodType instantiatedType = MethodType.methodType(void.class, key.getDeclaringClass(), type);
+                if (type.equals(boolean.class)) {
+                    return generate(BooleanSetter.class, "accept",
+                            MethodType.methodType(void.class, Object.class, boolean.class), handle, instantiatedType);
+                } else if (type.equals(int.class)) {
+                    return generate(ObjIntConsumer.class, "accept",
+                            MethodType.methodType(void.class, Object.class, int.class), handle, instantiatedType);
+                } else if (type.equals(long.class)) {
+                    return generate(ObjLongConsumer.class, "accept",
+                            MethodType.methodType(void.class, Object.class, long.class), handle, instantiatedType);
+                } else if (type.equals(double.class)) {
+                    return generate(ObjDoubleConsumer.class, "accept",
+                            MethodType.methodType(void.class, Object.class, double.class), handle, instantiatedType);
+                } else {
+                    return generate(BiConsumer.class, "accept",
+                            MethodType.methodType(void.class, Object.class, Object.class), handle, instantiatedType);
+                }
+            } catch (Throwable error) {
+                if (type.equals(boolean.class)) {
+                    return (BooleanSetter) (object, value) -> invoke(key, object, value);
+                } else if (type.equals(int.class)) {
+                    return (ObjIntConsumer<Object>) (object, value) -> invoke(key, object, value);
+                } else if (type.equals(long.class)) {
+                    return (ObjLongConsumer<Object>) (object, value) -> invoke(key, object, value);
+                } else if (type.equals(double.class)) {
+                    return (ObjDoubleConsumer<Object>) (object, value) -> invoke(key, object, value);
+                } else {
+                    return (BiConsumer<Object, Object>) (object, value) -> invoke(key, object, value);
+                }
+            }
+        });
+    }
+
+}
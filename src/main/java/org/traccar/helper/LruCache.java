@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.helper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent bounded cache. Entries are split into independently locked segments, each evicting least recently used
+ * entries. Entries can also expire after a fixed time since they were added. Hits and misses are counted.
+ */
+public class LruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    public record Statistics(long hits, long misses, int size) {
+    }
+
+    private record Entry<V>(V value, long time) {
+    }
+
+    private final long expiration;
+    private final List<Map<K, Entry<V>>> segments = new ArrayList<>(SEGMENTS);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param size maximum number of entries
+     * @param expiration entry lifetime in milliseconds or zero if entries don't expire
+     */
+    public LruCache(int size, long expiration) {
+        this.expiration = expiration;
+        int segmentSize = Math.max(size / SEGMENTS, 1);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments.add(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > segmentSize;
+                }
+            });
+        }
+    }
+
+    private Map<K, Entry<V>> getSegment(K key) {
+        return segments.get(Math.floorMod(key.hashCode(), SEGMENTS));
+    }
+
+    public V get(K key) {
+        Map<K, Entry<V>> segment = getSegment(key);
+        Entry<V> entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && expiration > 0 && System.currentTimeMillis() - entry.time() > expiration) {
+                segment.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hits.increment();
+            return entry.value();
+        } else {
+            misses.increment();
+            return null;
+        }
+    }
+
+    public void put(K key, V value) {
+        Map<K, Entry<V>> segment = getSegment(key);
+        synchronized (segment) {
+            segment.put(key, new Entry<>(value, System.currentTimeMillis()));
+        }
+    }
+
+    public Statistics getStatistics() {
+        int size = 0;
+        for (Map<K, Entry<V>> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new Statistics(hits.sum(), misses.sum(), size);
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 - 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2022 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,11 +30,15 @@ import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
+import java.util.Map;
+
 public final class AttributeUtil {
 
     private AttributeUtil() {
     }
 
+    private static final Object NULL_VALUE = new Object();
+
     public interface Provider {
         Device getDevice();
         Group getGroup(long groupId);
@@ -42,12 +46,31 @@ public final class AttributeUtil {
         Config getConfig();
     }
 
+    /**
+     * Lookup value using device configuration cache. Resolved values are kept until the device, any of its groups or
+     * the server is updated.
+     */
+    @SuppressWarnings("unchecked")
     public static <T> T lookup(CacheManager cacheManager, ConfigKey<T> key, long deviceId) {
-        return lookup(new CacheProvider(cacheManager, deviceId), key);
+        Map<String, Object> values = cacheManager.getDeviceConfig(deviceId);
+        if (values == null) {
+            return lookup(new CacheProvider(cacheManager, deviceId), key);
+        }
+        Object value = values.get(key.getKey());
+        if (value == null) {
+            value = resolve(new CacheProvider(cacheManager, deviceId), key);
+            values.put(key.getKey(), value != null ? value : NULL_VALUE);
+        }
+        return value != null && value != NULL_VALUE ? (T) value : key.getDefaultValue();
     }
 
-    @SuppressWarnings({ "deprecation", "unchecked" })
     public static <T> T lookup(Provider provider, ConfigKey<T> key) {
+        T result = resolve(provider, key);
+        return result != null ? result : key.getDefaultValue();
+    }
+
+    @SuppressWarnings({ "deprecation", "unchecked" })
+    private static <T> T resolve(Provider provider, ConfigKey<T> key) {
         Device device = provider.getDevice();
         Object result = device.getAttributes().get(key.getKey());
         long groupId = device.getGroupId();
@@ -89,7 +112,7 @@ public final class AttributeUtil {
                 return (T) result;
             }
         }
-        return key.getDefaultValue();
+        return null;
     }
 
     public static String getDevicePassword(
@@ -1,5 +1,5 @@
 /*
- * Copyright 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2023 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,7 +17,11 @@ package org.traccar.session.cache;
 
 import org.traccar.helper.ConcurrentWeakValueMap;
 import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,23 +31,69 @@ public class CacheGraph {
 
     private final Map<CacheKey, CacheNode> roots = new ConcurrentHashMap<>();
     private final ConcurrentWeakValueMap<CacheKey, CacheNode> nodes = new ConcurrentWeakValueMap<>();
+    private final Map<Long, Map<Object, Object>> deviceViews = new ConcurrentHashMap<>();
 
     void addObject(BaseModel value) {
         CacheKey key = new CacheKey(value);
         CacheNode node = new CacheNode(value);
         roots.put(key, node);
         nodes.put(key, node);
+        if (value instanceof Device) {
+            deviceViews.remove(value.getId());
+        }
     }
 
     void removeObject(Class<? extends BaseModel> clazz, long id) {
         CacheKey key = new CacheKey(clazz, id);
         CacheNode node = nodes.remove(key);
         if (node != null) {
+            var devices = getDependentDevices(node);
             node.getAllLinks(false).forEach(child -> child.getLinks(key.clazz(), true).remove(node));
+            devices.forEach(deviceViews::remove);
         }
         roots.remove(key);
     }
 
+    /**
+     * Get resolved views of a cached device. Views are computed by the caller and stored in the returned map. They are
+     * dropped when an object or a link reachable from the device changes, so a stale view is stored only into a map
+     * that is no longer used. Returns null if the device is not cached.
+     */
+    Map<Object, Object> getDeviceViews(long deviceId) {
+        Map<Object, Object> views = deviceViews.get(deviceId);
+        if (views == null && nodes.get(new CacheKey(Device.class, deviceId)) != null) {
+            views = deviceViews.computeIfAbsent(deviceId, k -> new ConcurrentHashMap<>());
+        }
+        return views;
+    }
+
+    void clearDeviceViews() {
+        deviceViews.clear();
+    }
+
+    private Set<Long> getDependentDevices(CacheNode node) {
+        Set<Long> devices = new HashSet<>();
+        if (!deviceViews.isEmpty()) {
+            Set<CacheNode> visited = new HashSet<>();
+            Deque<CacheNode> queue = new ArrayDeque<>();
+            queue.add(node);
+            while (!queue.isEmpty()) {
+                CacheNode current = queue.poll();
+                if (visited.add(current)) {
+                    if (current.getValue() instanceof Device) {
+                        devices.add(current.getValue().getId());
+                    }
+                    current.getAllLinks(false).forEach(queue::add);
+                }
+            }
+        }
+        return devices;
+    }
+
+    private void invalidateViews(CacheNode node) {
+        getDependentDevices(node).forEach(deviceViews::remove);
+    }
+
     @SuppressWarnings("unchecked")
     <T extends BaseModel> T getObject(Class<T> clazz, long id) {
         CacheNode node = nodes.get(new CacheKey(clazz, id));
@@ -84,6 +134,7 @@ public class CacheGraph {
         CacheNode node = nodes.get(new CacheKey(value));
         if (node != null) {
             node.setValue(value);
+            invalidateViews(node);
         }
     }
 
@@ -101,6 +152,7 @@ public class CacheGraph {
             }
             fromNode.getLinks(toValue.getClass(), true).add(toNode);
             toNode.getLinks(fromClazz, false).add(fromNode);
+            invalidateViews(fromNode);
         }
         return stop;
     }
@@ -113,6 +165,7 @@ public class CacheGraph {
             if (toNode != null) {
                 fromNode.getLinks(toClazz, true).remove(toNode);
                 toNode.getLinks(fromClazz, false).remove(fromNode);
+                invalidateViews(fromNode);
             }
         }
     }
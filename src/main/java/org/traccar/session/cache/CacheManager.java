@@ -15,13 +15,16 @@
  */
 package org.traccar.session.cache;
 
+import io.netty.util.Timer;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.traccar.LifecycleObject;
 import org.traccar.broadcast.BroadcastInterface;
 import org.traccar.broadcast.BroadcastService;
 import org.traccar.config.Config;
+import org.traccar.config.Keys;
 import org.traccar.model.Attribute;
 import org.traccar.model.BaseModel;
 import org.traccar.model.Calendar;
@@ -38,41 +41,74 @@ import org.traccar.model.Position;
 import org.traccar.model.Schedulable;
 import org.traccar.model.Server;
 import org.traccar.model.User;
+import org.traccar.storage.PermissionClosure;
 import org.traccar.storage.Storage;
 import org.traccar.storage.StorageException;
 import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Singleton
-public class CacheManager implements BroadcastInterface {
+public class CacheManager implements BroadcastInterface, LifecycleObject {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CacheManager.class);
 
     private static final Set<Class<? extends BaseModel>> GROUPED_CLASSES =
             Set.of(Attribute.class, Driver.class, Geofence.class, Maintenance.class, Notification.class);
 
+    private static final int BATCH_SIZE = 500;
+    private static final int LOCK_STRIPES = 64;
+    private static final int LOAD_ATTEMPTS = 3;
+
+    private static final Object WARM_UP_KEY = new Object();
+
+    private static final String NOTIFICATIONS_VIEW = "notifications";
+    private static final String CONFIG_VIEW = "config";
+
     private final Config config;
     private final Storage storage;
     private final BroadcastService broadcastService;
+    private final PermissionClosure permissionClosure;
+    private final Timer timer;
 
     private final CacheGraph graph = new CacheGraph();
 
     private volatile Server server;
     private final Map<Long, Position> devicePositions = new ConcurrentHashMap<>();
     private final Map<Long, HashSet<Object>> deviceReferences = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * Incremented under the cache lock by every invalidation before it reads storage. Storage reads done without the
+     * lock are published only if the generation has not changed since they started, otherwise they are repeated.
+     */
+    private volatile long generation;
 
     @Inject
-    public CacheManager(Config config, Storage storage, BroadcastService broadcastService) throws StorageException {
+    public CacheManager(
+            Config config, Storage storage, BroadcastService broadcastService,
+            PermissionClosure permissionClosure, Timer timer) throws StorageException {
         this.config = config;
         this.storage = storage;
         this.broadcastService = broadcastService;
+        this.permissionClosure = permissionClosure;
+        this.timer = timer;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
         server = storage.getObject(Server.class, new Request(new Columns.All()));
         broadcastService.registerListener(this);
     }
@@ -90,9 +126,34 @@ public class CacheManager implements BroadcastInterface {
         return graph.getObject(clazz, id);
     }
 
+    @SuppressWarnings("unchecked")
     public <T extends BaseModel> Set<T> getDeviceObjects(long deviceId, Class<T> clazz) {
-        return graph.getObjects(Device.class, deviceId, clazz, Set.of(Group.class), true)
-                .collect(Collectors.toUnmodifiableSet());
+        var views = graph.getDeviceViews(deviceId);
+        Set<T> result = views != null ? (Set<T>) views.get(clazz) : null;
+        if (result == null) {
+            result = graph.getObjects(Device.class, deviceId, clazz, Set.of(Group.class), true)
+                    .collect(Collectors.toUnmodifiableSet());
+            if (views != null) {
+                views.put(clazz, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get cache of configuration values resolved for the device. Returns null if the device is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getDeviceConfig(long deviceId) {
+        var views = graph.getDeviceViews(deviceId);
+        if (views == null) {
+            return null;
+        }
+        var values = (Map<String, Object>) views.get(CONFIG_VIEW);
+        if (values == null) {
+            values = (Map<String, Object>) views.computeIfAbsent(CONFIG_VIEW, k -> new ConcurrentHashMap<>());
+        }
+        return values;
     }
 
     public Position getPosition(long deviceId) {
@@ -110,40 +171,148 @@ public class CacheManager implements BroadcastInterface {
                 .collect(Collectors.toUnmodifiableSet());
     }
 
+    @SuppressWarnings("unchecked")
     public Set<Notification> getDeviceNotifications(long deviceId) {
-        var direct = graph.getObjects(Device.class, deviceId, Notification.class, Set.of(Group.class), true)
-                .map(BaseModel::getId)
-                .collect(Collectors.toUnmodifiableSet());
-        return graph.getObjects(Device.class, deviceId, Notification.class, Set.of(Group.class, User.class), true)
-                .filter(notification -> notification.getAlways() || direct.contains(notification.getId()))
-                .collect(Collectors.toUnmodifiableSet());
+        var views = graph.getDeviceViews(deviceId);
+        Set<Notification> result = views != null ? (Set<Notification>) views.get(NOTIFICATIONS_VIEW) : null;
+        if (result == null) {
+            var direct = getDeviceObjects(deviceId, Notification.class).stream()
+                    .map(BaseModel::getId)
+                    .collect(Collectors.toUnmodifiableSet());
+            result = graph.getObjects(Device.class, deviceId, Notification.class, Set.of(Group.class, User.class), true)
+                    .filter(notification -> notification.getAlways() || direct.contains(notification.getId()))
+                    .collect(Collectors.toUnmodifiableSet());
+            if (views != null) {
+                views.put(NOTIFICATIONS_VIEW, result);
+            }
+        }
+        return result;
     }
 
-    public synchronized void addDevice(long deviceId, Object key) throws Exception {
-        var references = deviceReferences.computeIfAbsent(deviceId, k -> new HashSet<>());
-        if (references.isEmpty()) {
-            Device device = storage.getObject(Device.class, new Request(
-                    new Columns.All(), new Condition.Equals("id", deviceId)));
-            graph.addObject(device);
-            initializeCache(device);
-            if (device.getPositionId() > 0) {
-                devicePositions.put(deviceId, storage.getObject(Position.class, new Request(
-                        new Columns.All(), new Condition.Equals("id", device.getPositionId()))));
+    /**
+     * Get value derived from objects linked to the device. It's computed once and kept until any of the linked objects
+     * changes. If the device is not cached, the value is computed on every call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getDeviceView(long deviceId, Object key, Supplier<T> supplier) {
+        var views = graph.getDeviceViews(deviceId);
+        T result = views != null ? (T) views.get(key) : null;
+        if (result == null) {
+            result = supplier.get();
+            if (views != null) {
+                views.put(key, result);
             }
         }
-        references.add(key);
-        LOGGER.debug("Cache add device {} references {} key {}", deviceId, references.size(), key);
+        return result;
+    }
+
+    public void addDevice(long deviceId, Object key) throws Exception {
+        addDevices(List.of(deviceId), key);
     }
 
-    public synchronized void removeDevice(long deviceId, Object key) {
-        var references = deviceReferences.computeIfAbsent(deviceId, k -> new HashSet<>());
-        references.remove(key);
-        if (references.isEmpty()) {
-            graph.removeObject(Device.class, deviceId);
-            devicePositions.remove(deviceId);
-            deviceReferences.remove(deviceId);
+    private Object getLock(long deviceId) {
+        return locks[Math.floorMod(Long.hashCode(deviceId), locks.length)];
+    }
+
+    private interface CacheUpdate {
+        void apply() throws StorageException;
+    }
+
+    /**
+     * Read storage without holding the cache lock and apply the result under the lock, unless an invalidation has
+     * happened in the meantime. In that case storage is read again. The last attempt holds the lock while reading, so
+     * a steady stream of invalidations can't delay the update indefinitely.
+     */
+    private void update(Callable<CacheUpdate> prepare) throws Exception {
+        for (int attempt = 1; attempt < LOAD_ATTEMPTS; attempt++) {
+            long snapshot = generation;
+            CacheUpdate update = prepare.call();
+            if (update == null) {
+                return;
+            }
+            synchronized (this) {
+                if (generation == snapshot) {
+                    update.apply();
+                    return;
+                }
+            }
+            LOGGER.debug("Cache update attempt {} is stale", attempt);
+        }
+        synchronized (this) {
+            CacheUpdate update = prepare.call();
+            if (update != null) {
+                update.apply();
+            }
+        }
+    }
+
+    private synchronized void incrementGeneration() {
+        generation += 1;
+    }
+
+    /**
+     * Add references to multiple devices. Devices that are not cached yet are loaded together with all linked
+     * objects using a small number of queries per batch. Storage is read without holding the cache lock and loaded
+     * objects are published into the graph at once.
+     */
+    public void addDevices(Collection<Long> deviceIds, Object key) throws Exception {
+        for (long deviceId : deviceIds) {
+            synchronized (getLock(deviceId)) {
+                var references = deviceReferences.computeIfAbsent(deviceId, k -> new HashSet<>());
+                if (key != WARM_UP_KEY) {
+                    references.remove(WARM_UP_KEY);
+                }
+                references.add(key);
+                LOGGER.debug("Cache add device {} references {} key {}", deviceId, references.size(), key);
+            }
+        }
+
+        update(() -> {
+            var missingIds = deviceIds.stream()
+                    .filter(deviceId -> graph.getObject(Device.class, deviceId) == null)
+                    .collect(Collectors.toSet());
+            if (missingIds.isEmpty()) {
+                return null;
+            }
+
+            List<Device> devices = getObjects(Device.class, missingIds);
+            CacheLoad load = load(devices);
+            var positionIds = devices.stream()
+                    .map(Device::getPositionId)
+                    .filter(positionId -> positionId > 0)
+                    .collect(Collectors.toSet());
+            List<Position> positions = getObjects(Position.class, positionIds);
+
+            return () -> {
+                for (Device device : devices) {
+                    if (deviceReferences.containsKey(device.getId())
+                            && graph.getObject(Device.class, device.getId()) == null) {
+                        graph.addObject(device);
+                    }
+                }
+                publish(load);
+                for (Position position : positions) {
+                    if (deviceReferences.containsKey(position.getDeviceId())) {
+                        devicePositions.putIfAbsent(position.getDeviceId(), position);
+                    }
+                }
+            };
+        });
+    }
+
+    public void removeDevice(long deviceId, Object key) {
+        synchronized (getLock(deviceId)) {
+            var references = deviceReferences.computeIfAbsent(deviceId, k -> new HashSet<>());
+            references.remove(key);
+            if (references.isEmpty()) {
+                deviceReferences.remove(deviceId);
+                synchronized (this) {
+                    graph.removeObject(Device.class, deviceId);
+                    devicePositions.remove(deviceId);
+                }
+            }
+            LOGGER.debug("Cache remove device {} references {} key {}", deviceId, references.size(), key);
         }
-        LOGGER.debug("Cache remove device {} references {} key {}", deviceId, references.size(), key);
     }
 
     public void updatePosition(Position position) {
@@ -153,63 +322,114 @@ public class CacheManager implements BroadcastInterface {
         });
     }
 
+    @Override
+    public void start() throws Exception {
+        if (config.getBoolean(Keys.SERVER_CACHE_WARM_UP)) {
+            long startTime = System.currentTimeMillis();
+            var deviceIds = storage.getObjects(Device.class, new Request(new Columns.Include("id"))).stream()
+                    .map(BaseModel::getId)
+                    .toList();
+            for (List<Long> batch : partition(deviceIds)) {
+                addDevices(batch, WARM_UP_KEY);
+            }
+            LOGGER.info("Cache warm-up loaded {} devices in {} ms",
+                    deviceIds.size(), System.currentTimeMillis() - startTime);
+            timer.newTimeout(
+                    timeout -> releaseWarmUp(), config.getLong(Keys.SERVER_CACHE_WARM_UP_TIMEOUT), TimeUnit.SECONDS);
+        }
+    }
+
+    void releaseWarmUp() {
+        for (long deviceId : deviceReferences.keySet()) {
+            synchronized (getLock(deviceId)) {
+                var references = deviceReferences.get(deviceId);
+                if (references != null && references.contains(WARM_UP_KEY)) {
+                    removeDevice(deviceId, WARM_UP_KEY);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+    }
+
     @Override
     public <T extends BaseModel> void invalidateObject(
             boolean local, Class<T> clazz, long id, ObjectOperation operation) throws Exception {
         if (local) {
             broadcastService.invalidateObject(true, clazz, id, operation);
+        } else if (operation == ObjectOperation.DELETE
+                && (clazz.equals(User.class) || PermissionClosure.isSupported(clazz))) {
+            permissionClosure.invalidate();
         }
 
         synchronized (this) {
+            generation += 1;
             if (operation == ObjectOperation.DELETE) {
                 graph.removeObject(clazz, id);
             }
-            if (operation != ObjectOperation.UPDATE) {
-                return;
-            }
+        }
+        if (operation != ObjectOperation.UPDATE) {
+            return;
+        }
 
-            if (clazz.equals(Server.class)) {
-                server = storage.getObject(Server.class, new Request(new Columns.All()));
-                return;
-            }
+        if (clazz.equals(Server.class)) {
+            server = storage.getObject(Server.class, new Request(new Columns.All()));
+            graph.clearDeviceViews();
+            return;
+        }
 
-            var after = storage.getObject(clazz, new Request(
-                    new Columns.All(), new Condition.Equals("id", id)));
-            if (after == null) {
-                return;
-            }
-            var before = getObject(after.getClass(), after.getId());
-            if (before == null) {
-                return;
-            }
+        update(() -> prepareUpdate(local, clazz, id));
+    }
 
-            if (after instanceof GroupedModel) {
-                long beforeGroupId = ((GroupedModel) before).getGroupId();
-                long afterGroupId = ((GroupedModel) after).getGroupId();
-                if (beforeGroupId != afterGroupId) {
-                    if (beforeGroupId > 0) {
-                        invalidatePermission(clazz, id, Group.class, beforeGroupId, false);
-                    }
-                    if (afterGroupId > 0) {
-                        invalidatePermission(clazz, id, Group.class, afterGroupId, true);
-                    }
+    private CacheUpdate prepareUpdate(
+            boolean local, Class<? extends BaseModel> clazz, long id) throws StorageException {
+        var after = storage.getObject(clazz, new Request(
+                new Columns.All(), new Condition.Equals("id", id)));
+        if (after == null) {
+            return null;
+        }
+        if (!local && after instanceof GroupedModel groupedModel) {
+            permissionClosure.updateObject(clazz, id, groupedModel.getGroupId());
+        }
+        var before = getObject(clazz, id);
+        if (before == null) {
+            return null;
+        }
+
+        var updates = new ArrayList<LinkUpdate>();
+        if (after instanceof GroupedModel) {
+            long beforeGroupId = ((GroupedModel) before).getGroupId();
+            long afterGroupId = ((GroupedModel) after).getGroupId();
+            if (beforeGroupId != afterGroupId) {
+                if (beforeGroupId > 0) {
+                    updates.add(prepareLink(clazz, id, Group.class, beforeGroupId, false));
                 }
-            } else if (after instanceof Schedulable) {
-                long beforeCalendarId = ((Schedulable) before).getCalendarId();
-                long afterCalendarId = ((Schedulable) after).getCalendarId();
-                if (beforeCalendarId != afterCalendarId) {
-                    if (beforeCalendarId > 0) {
-                        invalidatePermission(clazz, id, Calendar.class, beforeCalendarId, false);
-                    }
-                    if (afterCalendarId > 0) {
-                        invalidatePermission(clazz, id, Calendar.class, afterCalendarId, true);
-                    }
+                if (afterGroupId > 0) {
+                    updates.add(prepareLink(clazz, id, Group.class, afterGroupId, true));
+                }
+            }
+        } else if (after instanceof Schedulable) {
+            long beforeCalendarId = ((Schedulable) before).getCalendarId();
+            long afterCalendarId = ((Schedulable) after).getCalendarId();
+            if (beforeCalendarId != afterCalendarId) {
+                if (beforeCalendarId > 0) {
+                    updates.add(prepareLink(clazz, id, Calendar.class, beforeCalendarId, false));
+                }
+                if (afterCalendarId > 0) {
+                    updates.add(prepareLink(clazz, id, Calendar.class, afterCalendarId, true));
                 }
-                // TODO handle notification always change
             }
+            // TODO handle notification always change
+        }
 
+        return () -> {
+            for (LinkUpdate update : updates) {
+                applyLink(update);
+            }
             graph.updateObject(after);
-        }
+        };
     }
 
     @Override
@@ -217,19 +437,39 @@ public class CacheManager implements BroadcastInterface {
             boolean local, Class<T1> clazz1, long id1, Class<T2> clazz2, long id2, boolean link) throws Exception {
         if (local) {
             broadcastService.invalidatePermission(true, clazz1, id1, clazz2, id2, link);
+        } else if (PermissionClosure.isSupported(clazz2)) {
+            permissionClosure.invalidate(); // linked object may be new on this node
         }
 
-        synchronized (this) {
+        incrementGeneration();
+        update(() -> {
+            LinkUpdate update;
             if (clazz1.equals(User.class) && GroupedModel.class.isAssignableFrom(clazz2)) {
-                invalidatePermission(clazz2, id2, clazz1, id1, link);
+                update = prepareLink(clazz2, id2, clazz1, id1, link);
             } else {
-                invalidatePermission(clazz1, id1, clazz2, id2, link);
+                update = prepareLink(clazz1, id1, clazz2, id2, link);
             }
-        }
+            return update != null ? () -> applyLink(update) : null;
+        });
     }
 
-    private <T1 extends BaseModel, T2 extends BaseModel> void invalidatePermission(
-            Class<T1> fromClass, long fromId, Class<T2> toClass, long toId, boolean link) throws Exception {
+    private record Link(
+            Class<? extends BaseModel> fromClass, long fromId, Class<? extends BaseModel> toClass, long toId) {
+    }
+
+    private record LinkUpdate(Link link, boolean add, BaseModel object, CacheLoad load) {
+    }
+
+    /**
+     * Objects read from storage for linking into the graph. Only objects that were missing from the graph at the time
+     * of loading have their own links included.
+     */
+    private record CacheLoad(List<Link> links, Map<CacheKey, BaseModel> objects, Set<CacheKey> expanded) {
+    }
+
+    private LinkUpdate prepareLink(
+            Class<? extends BaseModel> fromClass, long fromId, Class<? extends BaseModel> toClass, long toId,
+            boolean link) throws StorageException {
 
         boolean groupLink = GroupedModel.class.isAssignableFrom(fromClass) && toClass.equals(Group.class);
         boolean calendarLink = Schedulable.class.isAssignableFrom(fromClass) && toClass.equals(Calendar.class);
@@ -238,60 +478,182 @@ public class CacheManager implements BroadcastInterface {
         boolean groupedLinks = GroupedModel.class.isAssignableFrom(fromClass)
                 && (GROUPED_CLASSES.contains(toClass) || toClass.equals(User.class));
 
-        if (!groupLink && !calendarLink && !userLink && !groupedLinks) {
-            return;
+        if (!groupLink && !calendarLink && !userLink && !groupedLinks
+                || graph.getObject(fromClass, fromId) == null) {
+            return null;
         }
 
         if (link) {
             BaseModel object = storage.getObject(toClass, new Request(
                     new Columns.All(), new Condition.Equals("id", toId)));
-            if (!graph.addLink(fromClass, fromId, object)) {
-                initializeCache(object);
+            if (object == null) {
+                return null;
             }
+            CacheLoad load = graph.getObject(toClass, toId) == null ? load(List.of(object)) : null;
+            return new LinkUpdate(new Link(fromClass, fromId, toClass, toId), true, object, load);
         } else {
-            graph.removeLink(fromClass, fromId, toClass, toId);
+            return new LinkUpdate(new Link(fromClass, fromId, toClass, toId), false, null, null);
         }
     }
 
-    private void initializeCache(BaseModel object) throws Exception {
-        if (object instanceof User) {
-            for (Permission permission : storage.getPermissions(User.class, Notification.class)) {
-                if (permission.getOwnerId() == object.getId()) {
-                    invalidatePermission(
-                            permission.getOwnerClass(), permission.getOwnerId(),
-                            permission.getPropertyClass(), permission.getPropertyId(), true);
-                }
+    private void applyLink(LinkUpdate update) throws StorageException {
+        if (update == null) {
+            return;
+        }
+        Link link = update.link();
+        if (update.add()) {
+            if (!graph.addLink(link.fromClass(), link.fromId(), update.object())) {
+                publish(update.load() != null ? update.load() : load(List.of(update.object())));
             }
         } else {
-            if (object instanceof GroupedModel groupedModel) {
-                long groupId = groupedModel.getGroupId();
-                if (groupId > 0) {
-                    invalidatePermission(object.getClass(), object.getId(), Group.class, groupId, true);
-                }
+            graph.removeLink(link.fromClass(), link.fromId(), link.toClass(), link.toId());
+        }
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<List<Long>> batches = new ArrayList<>();
+        List<Long> batch = new ArrayList<>();
+        for (long id : ids) {
+            if (batch.size() == BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+            batch.add(id);
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private <T extends BaseModel> List<T> getObjects(Class<T> clazz, Collection<Long> ids) throws StorageException {
+        List<T> result = new ArrayList<>();
+        for (List<Long> batch : partition(ids)) {
+            result.addAll(storage.getObjects(clazz, new Request(new Columns.All(), new Condition.In("id", batch))));
+        }
+        return result;
+    }
+
+    private List<Permission> getOwnerPermissions(
+            Class<? extends BaseModel> ownerClass, Collection<Long> ownerIds,
+            Class<? extends BaseModel> propertyClass) throws StorageException {
+        List<Permission> result = new ArrayList<>();
+        for (List<Long> batch : partition(ownerIds)) {
+            result.addAll(storage.getPermissions(ownerClass, batch, propertyClass, null));
+        }
+        return result;
+    }
+
+    private List<Permission> getPropertyPermissions(
+            Class<? extends BaseModel> ownerClass,
+            Class<? extends BaseModel> propertyClass, Collection<Long> propertyIds) throws StorageException {
+        List<Permission> result = new ArrayList<>();
+        for (List<Long> batch : partition(propertyIds)) {
+            result.addAll(storage.getPermissions(ownerClass, null, propertyClass, batch));
+        }
+        return result;
+    }
 
-                for (Permission permission : storage.getPermissions(User.class, object.getClass())) {
-                    if (permission.getPropertyId() == object.getId()) {
-                        invalidatePermission(
-                                object.getClass(), object.getId(), User.class, permission.getOwnerId(), true);
+    private List<Link> getLinks(Collection<? extends BaseModel> objects) throws StorageException {
+        Map<Class<? extends BaseModel>, List<BaseModel>> objectsByClass = new HashMap<>();
+        for (BaseModel object : objects) {
+            objectsByClass.computeIfAbsent(object.getClass(), k -> new ArrayList<>()).add(object);
+        }
+
+        List<Link> links = new ArrayList<>();
+        for (var entry : objectsByClass.entrySet()) {
+            Class<? extends BaseModel> clazz = entry.getKey();
+            Set<Long> ids = entry.getValue().stream().map(BaseModel::getId).collect(Collectors.toSet());
+            if (clazz.equals(User.class)) {
+                for (Permission permission : getOwnerPermissions(User.class, ids, Notification.class)) {
+                    links.add(new Link(
+                            User.class, permission.getOwnerId(), Notification.class, permission.getPropertyId()));
+                }
+                continue;
+            }
+            if (GroupedModel.class.isAssignableFrom(clazz)) {
+                for (BaseModel object : entry.getValue()) {
+                    long groupId = ((GroupedModel) object).getGroupId();
+                    if (groupId > 0) {
+                        links.add(new Link(clazz, object.getId(), Group.class, groupId));
                     }
                 }
+                for (Permission permission : getPropertyPermissions(User.class, clazz, ids)) {
+                    links.add(new Link(clazz, permission.getPropertyId(), User.class, permission.getOwnerId()));
+                }
+                for (Class<? extends BaseModel> linkedClass : GROUPED_CLASSES) {
+                    for (Permission permission : getOwnerPermissions(clazz, ids, linkedClass)) {
+                        links.add(new Link(
+                                clazz, permission.getOwnerId(), linkedClass, permission.getPropertyId()));
+                    }
+                }
+            }
+            if (Schedulable.class.isAssignableFrom(clazz)) {
+                for (BaseModel object : entry.getValue()) {
+                    long calendarId = ((Schedulable) object).getCalendarId();
+                    if (calendarId > 0) {
+                        links.add(new Link(clazz, object.getId(), Calendar.class, calendarId));
+                    }
+                }
+            }
+        }
+        return links;
+    }
 
-                for (Class<? extends BaseModel> clazz : GROUPED_CLASSES) {
-                    for (Permission permission : storage.getPermissions(object.getClass(), clazz)) {
-                        if (permission.getOwnerId() == object.getId()) {
-                            invalidatePermission(
-                                    object.getClass(), object.getId(), clazz, permission.getPropertyId(), true);
-                        }
+    /**
+     * Read objects linked to the given objects level by level. Each level needs one permission query per link type
+     * and one query per linked object type, no matter how many objects it contains. Objects that are already cached
+     * are not expanded further.
+     */
+    private CacheLoad load(Collection<? extends BaseModel> objects) throws StorageException {
+        List<Link> links = new ArrayList<>();
+        Map<CacheKey, BaseModel> targets = new HashMap<>();
+        Set<CacheKey> expanded = new HashSet<>();
+        objects.forEach(object -> expanded.add(new CacheKey(object)));
+
+        Collection<? extends BaseModel> level = objects;
+        while (!level.isEmpty()) {
+            List<Link> levelLinks = getLinks(level);
+            links.addAll(levelLinks);
+
+            Map<Class<? extends BaseModel>, Set<Long>> missingIds = new HashMap<>();
+            for (Link link : levelLinks) {
+                CacheKey key = new CacheKey(link.toClass(), link.toId());
+                if (!targets.containsKey(key) && !expanded.contains(key)) {
+                    BaseModel object = graph.getObject(link.toClass(), link.toId());
+                    if (object != null) {
+                        targets.put(key, object);
+                    } else {
+                        missingIds.computeIfAbsent(link.toClass(), k -> new HashSet<>()).add(link.toId());
                     }
                 }
             }
 
-            if (object instanceof Schedulable schedulable) {
-                long calendarId = schedulable.getCalendarId();
-                if (calendarId > 0) {
-                    invalidatePermission(object.getClass(), object.getId(), Calendar.class, calendarId, true);
+            List<BaseModel> nextLevel = new ArrayList<>();
+            for (var entry : missingIds.entrySet()) {
+                for (BaseModel object : getObjects(entry.getKey(), entry.getValue())) {
+                    CacheKey key = new CacheKey(object);
+                    targets.put(key, object);
+                    expanded.add(key);
+                    nextLevel.add(object);
                 }
             }
+            level = nextLevel;
+        }
+        return new CacheLoad(links, targets, expanded);
+    }
+
+    /**
+     * Link loaded objects into the graph. Must be called while holding the cache lock. If an object that was cached
+     * during loading has been released since then, its links are loaded again.
+     */
+    private void publish(CacheLoad load) throws StorageException {
+        for (Link link : load.links()) {
+            BaseModel object = load.objects().get(new CacheKey(link.toClass(), link.toId()));
+            if (object != null && !graph.addLink(link.fromClass(), link.fromId(), object)
+                    && !load.expanded().contains(new CacheKey(object))) {
+                publish(load(List.of(object)));
+            }
         }
     }
 
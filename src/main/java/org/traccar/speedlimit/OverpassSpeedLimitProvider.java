@@ -1,5 +1,5 @@
 /*
- * Copyright 2020 - 2023 Anton Tananaev (anton@traccar.org)
+ * Copyright 2020 - 2025 Anton Tananaev (anton@traccar.org)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -36,7 +36,7 @@ public class OverpassSpeedLimitProvider implements SpeedLimitProvider {
         this.url = url + "?data=[out:json];way[maxspeed](around:" + accuracy + ",%f,%f);out%%20tags;";
     }
 
-    private Double parseSpeed(String value) {
+    static Double parseSpeed(String value) {
         if (value.endsWith(" mph")) {
             return UnitsConverter.knotsFromMph(Double.parseDouble(value.substring(0, value.length() - 4)));
         } else if (value.endsWith(" knots")) {
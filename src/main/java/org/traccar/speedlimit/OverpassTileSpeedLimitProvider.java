@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.speedlimit;
+
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.helper.LruCache;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.InvocationCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speed limit provider loading all roads with speed limits for a whole map tile in a single Overpass query. Tiles are
+ * kept in memory and lookups are answered locally by finding the nearest road segment. Tile query area is extended by
+ * the search radius, so roads close to the tile border are found as well. When a tile fails to load, lookups in it fail
+ * immediately until a retry delay passes. The delay doubles with every consecutive failure.
+ */
+public class OverpassTileSpeedLimitProvider implements SpeedLimitProvider {
+
+    private static final double METERS_PER_DEGREE = 111320;
+    private static final long RETRY_DELAY = TimeUnit.SECONDS.toMillis(10);
+    private static final long RETRY_DELAY_MAX = TimeUnit.MINUTES.toMillis(10);
+
+    private record TileKey(int x, int y) {
+    }
+
+    private record Request(double latitude, double longitude, SpeedLimitProviderCallback callback) {
+    }
+
+    private record Failure(Throwable error, int attempts, long retryTime) {
+    }
+
+    private final Client client;
+    private final String url;
+    private final int accuracy;
+    private final int tiles;
+    private final LruCache<TileKey, SpeedLimitTile> cache;
+    private final LruCache<TileKey, Failure> failures;
+
+    private final Map<TileKey, List<Request>> pending = new ConcurrentHashMap<>();
+
+    public OverpassTileSpeedLimitProvider(Config config, Client client, String url) {
+        this.client = client;
+        this.url = url + "?data=[out:json];way[maxspeed](%f,%f,%f,%f);out%%20geom;";
+        accuracy = config.getInteger(Keys.SPEED_LIMIT_ACCURACY);
+        tiles = 1 << config.getInteger(Keys.SPEED_LIMIT_TILE_ZOOM);
+        cache = new LruCache<>(config.getInteger(Keys.SPEED_LIMIT_TILE_CACHE_SIZE), 0);
+        failures = new LruCache<>(config.getInteger(Keys.SPEED_LIMIT_TILE_CACHE_SIZE), 2 * RETRY_DELAY_MAX);
+    }
+
+    private TileKey getTileKey(double latitude, double longitude) {
+        double latitudeRadians = Math.toRadians(Math.max(-85, Math.min(85, latitude)));
+        int x = (int) Math.floor((longitude + 180) / 360 * tiles);
+        int y = (int) Math.floor(
+                (1 - Math.log(Math.tan(latitudeRadians) + 1 / Math.cos(latitudeRadians)) / Math.PI) / 2 * tiles);
+        return new TileKey(Math.floorMod(x, tiles), Math.max(0, Math.min(tiles - 1, y)));
+    }
+
+    private double getTileLatitude(int y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2.0 * y / tiles))));
+    }
+
+    private double getTileLongitude(int x) {
+        return x * 360.0 / tiles - 180;
+    }
+
+    SpeedLimitTile parseTile(double south, double west, double north, double east, JsonObject json) {
+        List<SpeedLimitTile.Segment> segments = new ArrayList<>();
+        for (JsonObject element : json.getJsonArray("elements").getValuesAs(JsonObject.class)) {
+            JsonObject tags = element.getJsonObject("tags");
+            JsonArray geometry = element.getJsonArray("geometry");
+            Double speedLimit = tags != null ? OverpassSpeedLimitProvider.parseSpeed(tags.getString("maxspeed")) : null;
+            if (speedLimit != null && geometry != null) {
+                for (int i = 1; i < geometry.size(); i++) {
+                    JsonObject start = geometry.getJsonObject(i - 1);
+                    JsonObject end = geometry.getJsonObject(i);
+                    segments.add(new SpeedLimitTile.Segment(
+                            start.getJsonNumber("lat").doubleValue(), start.getJsonNumber("lon").doubleValue(),
+                            end.getJsonNumber("lat").doubleValue(), end.getJsonNumber("lon").doubleValue(),
+                            speedLimit));
+                }
+            }
+        }
+        return new SpeedLimitTile(south, west, north, east, segments, accuracy);
+    }
+
+    private void load(TileKey key) {
+        double marginLatitude = accuracy / METERS_PER_DEGREE;
+        double south = getTileLatitude(key.y() + 1) - marginLatitude;
+        double north = getTileLatitude(key.y()) + marginLatitude;
+        double marginLongitude = marginLatitude / Math.cos(Math.toRadians(Math.max(Math.abs(south), Math.abs(north))));
+        double west = Math.max(-180, getTileLongitude(key.x()) - marginLongitude);
+        double east = Math.min(180, getTileLongitude(key.x() + 1) + marginLongitude);
+
+        try {
+            client.target(String.format(url, south, west, north, east)).request().async().get(
+                    new InvocationCallback<JsonObject>() {
+                @Override
+                public void completed(JsonObject json) {
+                    SpeedLimitTile tile;
+                    try {
+                        tile = parseTile(south, west, north, east, json);
+                    } catch (RuntimeException e) {
+                        failed(e);
+                        return;
+                    }
+                    cache.put(key, tile);
+                    for (Request request : pending.remove(key)) {
+                        answer(tile, request.latitude(), request.longitude(), request.callback());
+                    }
+                }
+
+                @Override
+                public void failed(Throwable throwable) {
+                    fail(key, throwable);
+                }
+            });
+        } catch (RuntimeException e) {
+            fail(key, e);
+        }
+    }
+
+    private void fail(TileKey key, Throwable error) {
+        Failure previous = failures.get(key);
+        int attempts = previous != null ? previous.attempts() + 1 : 1;
+        long delay = Math.min(RETRY_DELAY << Math.min(attempts - 1, 16), RETRY_DELAY_MAX);
+        failures.put(key, new Failure(error, attempts, System.currentTimeMillis() + delay));
+        List<Request> requests = pending.remove(key);
+        if (requests != null) {
+            for (Request request : requests) {
+                request.callback().onFailure(error);
+            }
+        }
+    }
+
+    private void answer(SpeedLimitTile tile, double latitude, double longitude, SpeedLimitProviderCallback callback) {
+        Double speedLimit = tile.getSpeedLimit(latitude, longitude);
+        if (speedLimit != null) {
+            callback.onSuccess(speedLimit);
+        } else {
+            callback.onFailure(new SpeedLimitException("Not found"));
+        }
+    }
+
+    @Override
+    public void getSpeedLimit(double latitude, double longitude, SpeedLimitProviderCallback callback) {
+        TileKey key = getTileKey(latitude, longitude);
+        SpeedLimitTile tile = cache.get(key);
+        if (tile != null) {
+            answer(tile, latitude, longitude, callback);
+            return;
+        }
+        Failure failure = failures.get(key);
+        if (failure != null && System.currentTimeMillis() < failure.retryTime()) {
+            callback.onFailure(failure.error());
+            return;
+        }
+        boolean[] first = new boolean[1];
+        pending.compute(key, (k, requests) -> {
+            if (requests == null) {
+                requests = new ArrayList<>();
+                first[0] = true;
+            }
+            requests.add(new Request(latitude, longitude, callback));
+            return requests;
+        });
+        if (first[0]) {
+            load(key);
+        }
+    }
+
+}
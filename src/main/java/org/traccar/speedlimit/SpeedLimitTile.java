@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.speedlimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Road segments with speed limits inside a map tile. Segments are bucketed into a grid of cells, each holding all
+ * segments within the search distance of the cell, so a lookup only checks segments of a single cell.
+ */
+class SpeedLimitTile {
+
+    private static final int GRID_SIZE = 16;
+    private static final double METERS_PER_DEGREE = 111320;
+
+    record Segment(double lat1, double lon1, double lat2, double lon2, double speedLimit) {
+    }
+
+    private final double south;
+    private final double west;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final double lonScale;
+    private final double distance;
+
+    private final Segment[] segments;
+    private final int[][] cells = new int[GRID_SIZE * GRID_SIZE][];
+
+    SpeedLimitTile(double south, double west, double north, double east, List<Segment> segments, double distance) {
+        this.south = south;
+        this.west = west;
+        this.distance = distance;
+        this.segments = segments.toArray(new Segment[0]);
+        cellHeight = (north - south) / GRID_SIZE;
+        cellWidth = (east - west) / GRID_SIZE;
+        lonScale = Math.cos(Math.toRadians((south + north) / 2));
+
+        List<List<Integer>> lists = new ArrayList<>();
+        for (int i = 0; i < cells.length; i++) {
+            lists.add(new ArrayList<>());
+        }
+        double marginLat = distance / METERS_PER_DEGREE;
+        double marginLon = marginLat / lonScale;
+        for (int i = 0; i < this.segments.length; i++) {
+            Segment segment = this.segments[i];
+            int minRow = getRow(Math.min(segment.lat1(), segment.lat2()) - marginLat);
+            int maxRow = getRow(Math.max(segment.lat1(), segment.lat2()) + marginLat);
+            int minColumn = getColumn(Math.min(segment.lon1(), segment.lon2()) - marginLon);
+            int maxColumn = getColumn(Math.max(segment.lon1(), segment.lon2()) + marginLon);
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    lists.get(row * GRID_SIZE + column).add(i);
+                }
+            }
+        }
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = lists.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private int getRow(double latitude) {
+        return Math.max(0, Math.min(GRID_SIZE - 1, (int) Math.floor((latitude - south) / cellHeight)));
+    }
+
+    private int getColumn(double longitude) {
+        return Math.max(0, Math.min(GRID_SIZE - 1, (int) Math.floor((longitude - west) / cellWidth)));
+    }
+
+    private double getDistance(Segment segment, double latitude, double longitude) {
+        double x1 = (segment.lon1() - longitude) * lonScale * METERS_PER_DEGREE;
+        double y1 = (segment.lat1() - latitude) * METERS_PER_DEGREE;
+        double dx = (segment.lon2() - segment.lon1()) * lonScale * METERS_PER_DEGREE;
+        double dy = (segment.lat2() - segment.lat1()) * METERS_PER_DEGREE;
+        double length = dx * dx + dy * dy;
+        double t = length > 0 ? Math.max(0, Math.min(1, -(x1 * dx + y1 * dy) / length)) : 0;
+        return Math.hypot(x1 + t * dx, y1 + t * dy);
+    }
+
+    /**
+     * Get speed limit of the nearest segment within the search distance or null if there is none.
+     */
+    Double getSpeedLimit(double latitude, double longitude) {
+        Double result = null;
+        double nearest = distance;
+        for (int i : cells[getRow(latitude) * GRID_SIZE + getColumn(longitude)]) {
+            double segmentDistance = getDistance(segments[i], latitude, longitude);
+            if (segmentDistance <= nearest) {
+                nearest = segmentDistance;
+                result = segments[i].speedLimit();
+            }
+        }
+        return result;
+    }
+
+}
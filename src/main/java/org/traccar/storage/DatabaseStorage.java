@@ -22,6 +22,7 @@ import org.traccar.model.Device;
 import org.traccar.model.Group;
 import org.traccar.model.GroupedModel;
 import org.traccar.model.Permission;
+import org.traccar.model.User;
 import org.traccar.storage.query.Columns;
 import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Order;
@@ -31,8 +32,11 @@ import jakarta.inject.Inject;
 import javax.sql.DataSource;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -42,13 +46,32 @@ public class DatabaseStorage extends Storage {
     private final Config config;
     private final DataSource dataSource;
     private final ObjectMapper objectMapper;
+    private final PermissionClosure permissionClosure;
     private final String databaseType;
 
+    private static final int MAX_CACHED_QUERIES = 1000;
+    private static final int IN_CHUNK_SIZE = 512;
+
+    private record QueryKey(String type, Class<?> clazz, Columns columns, Object condition, Object order) {
+    }
+
+    private record Query(String sql, List<String> columns) {
+    }
+
+    private interface QueryFactory {
+        Query create() throws StorageException;
+    }
+
+    private final Map<QueryKey, Query> queries = new ConcurrentHashMap<>();
+    private final Map<Class<?>, String> storageNames = new ConcurrentHashMap<>();
+
     @Inject
-    public DatabaseStorage(Config config, DataSource dataSource, ObjectMapper objectMapper) {
+    public DatabaseStorage(
+            Config config, DataSource dataSource, ObjectMapper objectMapper, PermissionClosure permissionClosure) {
         this.config = config;
         this.dataSource = dataSource;
         this.objectMapper = objectMapper;
+        this.permissionClosure = permissionClosure;
 
         try (var connection = dataSource.getConnection()) {
             databaseType = connection.getMetaData().getDatabaseProductName();
@@ -66,18 +89,25 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public <T> Stream<T> getObjectsStream(Class<T> clazz, Request request) throws StorageException {
-        StringBuilder query = new StringBuilder("SELECT ");
-        if (request.getColumns() instanceof Columns.All) {
-            query.append('*');
-        } else {
-            query.append(formatColumns(request.getColumns().getColumns(clazz, "set"), c -> c));
-        }
-        query.append(" FROM ").append(getStorageName(clazz));
-        query.append(formatCondition(request.getCondition()));
-        query.append(formatOrder(request.getOrder()));
+        Condition condition = resolvePermissions(request.getCondition());
+        var key = new QueryKey(
+                "select", clazz, request.getColumns(),
+                getConditionShape(condition), getOrderShape(request.getOrder()));
+        Query query = getQuery(key, () -> {
+            StringBuilder sql = new StringBuilder("SELECT ");
+            if (request.getColumns() instanceof Columns.All) {
+                sql.append('*');
+            } else {
+                sql.append(formatColumns(request.getColumns().getColumns(clazz, "set"), c -> c));
+            }
+            sql.append(" FROM ").append(getStorageName(clazz));
+            sql.append(formatCondition(condition));
+            sql.append(formatOrder(request.getOrder()));
+            return new Query(sql.toString(), null);
+        });
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
-            List<Object> values = getConditionVariables(request.getCondition());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.sql());
+            List<Object> values = getConditionVariables(condition);
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
             }
@@ -89,18 +119,35 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public <T> long addObject(T entity, Request request) throws StorageException {
-        List<String> columns = request.getColumns().getColumns(entity.getClass(), "get");
-        StringBuilder query = new StringBuilder("INSERT INTO ");
-        query.append(getStorageName(entity.getClass()));
-        query.append("(");
-        query.append(formatColumns(columns, c -> c));
-        query.append(") VALUES (");
-        query.append(formatColumns(columns, c -> "?"));
-        query.append(")");
+        Query query = getInsertQuery(entity.getClass(), request.getColumns());
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString(), true);
-            builder.setObject(entity, columns);
-            return builder.executeUpdate();
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.sql(), true);
+            builder.setObject(entity, query.columns());
+            long id = builder.executeUpdate();
+            updatePermissionClosure(entity, id, query.columns());
+            return id;
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    @Override
+    public <T> long[] addObjects(List<T> entities, Request request) throws StorageException {
+        if (entities.size() <= 1 || databaseType.equals("Microsoft SQL Server")) {
+            return super.addObjects(entities, request); // no generated keys for batches
+        }
+        Query query = getInsertQuery(entities.get(0).getClass(), request.getColumns());
+        try {
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.sql(), true);
+            for (T entity : entities) {
+                builder.setObject(entity, query.columns());
+                builder.addBatch();
+            }
+            long[] ids = builder.executeBatch();
+            for (int index = 0; index < ids.length; index++) {
+                updatePermissionClosure(entities.get(index), ids[index], query.columns());
+            }
+            return ids;
         } catch (SQLException e) {
             throw new StorageException(e);
         }
@@ -108,20 +155,61 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public <T> void updateObject(T entity, Request request) throws StorageException {
-        List<String> columns = request.getColumns().getColumns(entity.getClass(), "get");
-        StringBuilder query = new StringBuilder("UPDATE ");
-        query.append(getStorageName(entity.getClass()));
-        query.append(" SET ");
-        query.append(formatColumns(columns, c -> c + " = ?"));
-        query.append(formatCondition(request.getCondition()));
+        Class<?> clazz = entity.getClass();
+        var key = new QueryKey(
+                "update", clazz, request.getColumns(), getConditionShape(request.getCondition()), List.of());
+        Query query = getQuery(key, () -> {
+            List<String> columns = request.getColumns().getColumns(clazz, "get");
+            String sql = "UPDATE " + getStorageName(clazz)
+                    + " SET " + formatColumns(columns, c -> c + " = ?")
+                    + formatCondition(request.getCondition());
+            return new Query(sql, columns);
+        });
+        List<String> columns = query.columns();
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.sql());
             builder.setObject(entity, columns);
             List<Object> values = getConditionVariables(request.getCondition());
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(columns.size() + index, values.get(index));
             }
             builder.executeUpdate();
+            if (request.getCondition() instanceof Condition.Equals condition && condition.getColumn().equals("id")) {
+                updatePermissionClosure(entity, ((Number) condition.getValue()).longValue(), columns);
+            } else if (PermissionClosure.isSupported(clazz) && columns.contains("groupId")) {
+                permissionClosure.invalidate();
+            }
+        } catch (SQLException e) {
+            throw new StorageException(e);
+        }
+    }
+
+    @Override
+    public <T extends BaseModel> void updateObjects(List<T> entities, Columns columns) throws StorageException {
+        if (entities.size() <= 1) {
+            super.updateObjects(entities, columns);
+            return;
+        }
+        Class<?> clazz = entities.get(0).getClass();
+        Query query = getQuery(new QueryKey("updateBatch", clazz, columns, List.of(), List.of()), () -> {
+            List<String> columnNames = columns.getColumns(clazz, "get");
+            String sql = "UPDATE " + getStorageName(clazz)
+                    + " SET " + formatColumns(columnNames, c -> c + " = ?")
+                    + " WHERE id = ?";
+            return new Query(sql, columnNames);
+        });
+        List<String> columnNames = query.columns();
+        try {
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.sql());
+            for (T entity : entities) {
+                builder.setObject(entity, columnNames);
+                builder.setLong(columnNames.size(), entity.getId());
+                builder.addBatch();
+            }
+            builder.executeBatch();
+            for (T entity : entities) {
+                updatePermissionClosure(entity, entity.getId(), columnNames);
+            }
         } catch (SQLException e) {
             throw new StorageException(e);
         }
@@ -129,16 +217,19 @@ public class DatabaseStorage extends Storage {
 
     @Override
     public void removeObject(Class<?> clazz, Request request) throws StorageException {
-        StringBuilder query = new StringBuilder("DELETE FROM ");
-        query.append(getStorageName(clazz));
-        query.append(formatCondition(request.getCondition()));
+        var key = new QueryKey("delete", clazz, null, getConditionShape(request.getCondition()), List.of());
+        Query query = getQuery(key, () -> new Query(
+                "DELETE FROM " + getStorageName(clazz) + formatCondition(request.getCondition()), null));
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.sql());
             List<Object> values = getConditionVariables(request.getCondition());
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
             }
             builder.executeUpdate();
+            if (clazz.equals(User.class) || PermissionClosure.isSupported(clazz)) {
+                permissionClosure.invalidate();
+            }
         } catch (SQLException e) {
             throw new StorageException(e);
         }
@@ -148,8 +239,6 @@ public class DatabaseStorage extends Storage {
     public List<Permission> getPermissions(
             Class<? extends BaseModel> ownerClass, long ownerId,
             Class<? extends BaseModel> propertyClass, long propertyId) throws StorageException {
-        StringBuilder query = new StringBuilder("SELECT * FROM ");
-        query.append(Permission.getStorageName(ownerClass, propertyClass));
         var conditions = new LinkedList<Condition>();
         if (ownerId > 0) {
             conditions.add(new Condition.Equals(Permission.getKey(ownerClass), ownerId));
@@ -157,10 +246,35 @@ public class DatabaseStorage extends Storage {
         if (propertyId > 0) {
             conditions.add(new Condition.Equals(Permission.getKey(propertyClass), propertyId));
         }
-        Condition combinedCondition = Condition.merge(conditions);
-        query.append(formatCondition(combinedCondition));
+        return getPermissions(ownerClass, propertyClass, Condition.merge(conditions));
+    }
+
+    @Override
+    public List<Permission> getPermissions(
+            Class<? extends BaseModel> ownerClass, Collection<Long> ownerIds,
+            Class<? extends BaseModel> propertyClass, Collection<Long> propertyIds) throws StorageException {
+        var conditions = new LinkedList<Condition>();
+        if (ownerIds != null) {
+            conditions.add(new Condition.In(Permission.getKey(ownerClass), ownerIds));
+        }
+        if (propertyIds != null) {
+            conditions.add(new Condition.In(Permission.getKey(propertyClass), propertyIds));
+        }
+        return getPermissions(ownerClass, propertyClass, Condition.merge(conditions));
+    }
+
+    private List<Permission> getPermissions(
+            Class<? extends BaseModel> ownerClass, Class<? extends BaseModel> propertyClass,
+            Condition combinedCondition) throws StorageException {
+        Object conditionShape = getConditionShape(combinedCondition);
+        var key = new QueryKey(
+                "permissions", ownerClass, null,
+                conditionShape != null ? List.of(propertyClass, conditionShape) : null, List.of());
+        Query query = getQuery(key, () -> new Query(
+                "SELECT * FROM " + Permission.getStorageName(ownerClass, propertyClass)
+                        + formatCondition(combinedCondition), null));
         try {
-            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.toString());
+            QueryBuilder builder = QueryBuilder.create(config, dataSource, objectMapper, query.sql());
             List<Object> values = getConditionVariables(combinedCondition);
             for (int index = 0; index < values.size(); index++) {
                 builder.setValue(index, values.get(index));
@@ -185,6 +299,8 @@ public class DatabaseStorage extends Storage {
                 builder.setLong(index, entries.get(index).getValue());
             }
             builder.executeUpdate();
+            permissionClosure.updatePermission(
+                    permission.getOwnerClass(), permission.getOwnerId(), permission.getPropertyClass());
         } catch (SQLException e) {
             throw new StorageException(e);
         }
@@ -203,23 +319,131 @@ public class DatabaseStorage extends Storage {
                 builder.setLong(index, entries.get(index).getValue());
             }
             builder.executeUpdate();
+            permissionClosure.updatePermission(
+                    permission.getOwnerClass(), permission.getOwnerId(), permission.getPropertyClass());
         } catch (SQLException e) {
             throw new StorageException(e);
         }
     }
 
+    private void updatePermissionClosure(Object entity, long id, List<String> columns) {
+        if (entity instanceof GroupedModel groupedModel && columns.contains("groupId")) {
+            permissionClosure.updateObject(entity.getClass(), id, groupedModel.getGroupId());
+        }
+    }
+
+    /**
+     * Replace user permission conditions for devices and groups with lookups in the permission closure.
+     */
+    private Condition resolvePermissions(Condition genericCondition) throws StorageException {
+        if (genericCondition instanceof Condition.Permission condition) {
+            if (condition.getOwnerClass().equals(User.class) && condition.getOwnerId() > 0
+                    && condition.getIncludeGroups() && PermissionClosure.isSupported(condition.getPropertyClass())) {
+                return new Condition.In(
+                        "id", permissionClosure.getObjectIds(condition.getOwnerId(), condition.getPropertyClass()));
+            }
+        } else if (genericCondition instanceof Condition.And condition) {
+            return new Condition.And(
+                    resolvePermissions(condition.getFirst()), resolvePermissions(condition.getSecond()));
+        } else if (genericCondition instanceof Condition.Or condition) {
+            return new Condition.Or(
+                    resolvePermissions(condition.getFirst()), resolvePermissions(condition.getSecond()));
+        }
+        return genericCondition;
+    }
+
     private String getStorageName(Class<?> clazz) throws StorageException {
-        StorageName storageName = clazz.getAnnotation(StorageName.class);
-        if (storageName == null) {
-            throw new StorageException("StorageName annotation is missing");
+        String result = storageNames.get(clazz);
+        if (result == null) {
+            StorageName storageName = clazz.getAnnotation(StorageName.class);
+            if (storageName == null) {
+                throw new StorageException("StorageName annotation is missing");
+            }
+            result = storageName.value();
+            storageNames.put(clazz, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get SQL text for the query shape, building it only once. Shapes include columns, structure of the condition
+     * and order, but not the values, which are always bound as parameters.
+     */
+    private Query getQuery(QueryKey key, QueryFactory factory) throws StorageException {
+        if (key.condition() == null || key.order() == null) {
+            return factory.create();
+        }
+        Query query = queries.get(key);
+        if (query == null) {
+            query = factory.create();
+            if (queries.size() < MAX_CACHED_QUERIES) {
+                queries.putIfAbsent(key, query);
+            }
+        }
+        return query;
+    }
+
+    private Query getInsertQuery(Class<?> clazz, Columns columns) throws StorageException {
+        return getQuery(new QueryKey("insert", clazz, columns, List.of(), List.of()), () -> {
+            List<String> columnNames = columns.getColumns(clazz, "get");
+            String sql = "INSERT INTO " + getStorageName(clazz)
+                    + "(" + formatColumns(columnNames, c -> c) + ")"
+                    + " VALUES (" + formatColumns(columnNames, c -> "?") + ")";
+            return new Query(sql, columnNames);
+        });
+    }
+
+    private Object getConditionShape(Condition genericCondition) {
+        if (genericCondition == null) {
+            return List.of();
+        } else if (genericCondition instanceof Condition.Compare condition) {
+            return List.of(condition.getColumn(), condition.getOperator());
+        } else if (genericCondition instanceof Condition.In condition) {
+            return List.of("IN", condition.getColumn(), getPaddedSize(condition.getValues().size()));
+        } else if (genericCondition instanceof Condition.Between condition) {
+            return List.of("BETWEEN", condition.getColumn());
+        } else if (genericCondition instanceof Condition.Binary condition) {
+            Object first = getConditionShape(condition.getFirst());
+            Object second = getConditionShape(condition.getSecond());
+            return first != null && second != null ? List.of(condition.getOperator(), first, second) : null;
+        } else if (genericCondition instanceof Condition.Permission condition) {
+            return List.of(
+                    condition.getOwnerClass(), condition.getPropertyClass(),
+                    condition.getOwnerId() > 0, condition.getIncludeGroups());
+        } else if (genericCondition instanceof Condition.LatestPositions condition) {
+            return List.of("LATEST", condition.getDeviceId() > 0);
         }
-        return storageName.value();
+        return null;
+    }
+
+    /**
+     * Number of parameters used for IN condition. Lists are split into chunks to stay within database limits and the
+     * last chunk is padded to a power of two by repeating the last value, so that there is a small number of distinct
+     * statements to cache.
+     */
+    private static int getPaddedSize(int size) {
+        int remainder = size % IN_CHUNK_SIZE;
+        int padded = remainder <= 1 ? remainder : Integer.highestOneBit(remainder - 1) << 1;
+        return size - remainder + padded;
+    }
+
+    private Object getOrderShape(Order order) {
+        if (order == null) {
+            return List.of();
+        }
+        return List.of(order.getColumn(), order.getDescending(), order.getLimit());
     }
 
     private List<Object> getConditionVariables(Condition genericCondition) {
         List<Object> results = new ArrayList<>();
         if (genericCondition instanceof Condition.Compare condition) {
             results.add(condition.getValue());
+        } else if (genericCondition instanceof Condition.In condition) {
+            List<Object> values = condition.getValues();
+            results.addAll(values);
+            for (int i = values.size(); i < getPaddedSize(values.size()); i++) {
+                results.add(values.get(values.size() - 1));
+            }
         } else if (genericCondition instanceof Condition.Between condition) {
             results.add(condition.getFromValue());
             results.add(condition.getToValue());
@@ -261,6 +485,25 @@ public class DatabaseStorage extends Storage {
                 result.append(condition.getOperator());
                 result.append(" ?");
 
+            } else if (genericCondition instanceof Condition.In condition) {
+
+                int size = getPaddedSize(condition.getValues().size());
+                if (size == 0) {
+                    result.append("1 = 0");
+                } else {
+                    result.append("(");
+                    for (int offset = 0; offset < size; offset += IN_CHUNK_SIZE) {
+                        if (offset > 0) {
+                            result.append(" OR ");
+                        }
+                        result.append(condition.getColumn());
+                        result.append(" IN (");
+                        result.append("?, ".repeat(Math.min(IN_CHUNK_SIZE, size - offset) - 1));
+                        result.append("?)");
+                    }
+                    result.append(")");
+                }
+
             } else if (genericCondition instanceof Condition.Between condition) {
 
                 result.append(condition.getColumn());
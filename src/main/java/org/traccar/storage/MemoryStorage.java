@@ -79,6 +79,10 @@ public class MemoryStorage extends Storage {
                 default -> throw new RuntimeException("Unsupported comparison condition");
             };
 
+        } else if (genericCondition instanceof Condition.In condition) {
+
+            return condition.getValues().contains(retrieveValue(object, condition.getColumn()));
+
         } else if (genericCondition instanceof Condition.Between condition) {
 
             Object fromValue = retrieveValue(object, condition.getColumn());
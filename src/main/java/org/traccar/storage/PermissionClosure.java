@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 Anton Tananaev (anton@traccar.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.traccar.storage;
+
+import com.google.inject.Provider;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.traccar.model.Device;
+import org.traccar.model.Group;
+import org.traccar.model.Permission;
+import org.traccar.model.User;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Effective user access to devices and groups, including everything reachable through the group hierarchy regardless
+ * of its depth. Group tree and device groups are loaded once and updated in place, while per-user results are
+ * computed on demand and dropped whenever links or parent groups they depend on change. Data is loaded from the
+ * storage without holding the lock and results are only published if nothing has changed in the meantime.
+ */
+@Singleton
+public class PermissionClosure {
+
+    private record Access(Set<Long> devices, Set<Long> groups) {
+    }
+
+    private static final class Hierarchy {
+        private final Map<Long, Long> groupParents = new HashMap<>();
+        private final Map<Long, Long> deviceParents = new HashMap<>();
+        private final Map<Long, Set<Long>> groupChildren = new HashMap<>();
+        private final Map<Long, Set<Long>> groupDevices = new HashMap<>();
+    }
+
+    private final Provider<Storage> storageProvider;
+
+    private Hierarchy hierarchy;
+    private long version;
+
+    private final Map<Long, Access> users = new HashMap<>();
+
+    @Inject
+    public PermissionClosure(Provider<Storage> storageProvider) {
+        this.storageProvider = storageProvider;
+    }
+
+    public static boolean isSupported(Class<?> clazz) {
+        return clazz.equals(Device.class) || clazz.equals(Group.class);
+    }
+
+    /**
+     * Get ids of all devices or groups accessible by the user directly or through groups.
+     */
+    public Set<Long> getObjectIds(long userId, Class<?> clazz) throws StorageException {
+        Access access = getAccess(userId);
+        return clazz.equals(Device.class) ? access.devices() : access.groups();
+    }
+
+    private static void link(
+            Map<Long, Long> parents, Map<Long, Set<Long>> children, long id, long parentId) {
+        Long previousId = parentId > 0 ? parents.put(id, parentId) : parents.remove(id);
+        if (previousId != null) {
+            children.computeIfPresent(previousId, (key, value) -> {
+                value.remove(id);
+                return value.isEmpty() ? null : value;
+            });
+        }
+        if (parentId > 0) {
+            children.computeIfAbsent(parentId, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private static Hierarchy loadHierarchy(Storage storage) throws StorageException {
+        Hierarchy hierarchy = new Hierarchy();
+        for (Group group : storage.getObjects(Group.class, new Request(new Columns.Include("id", "groupId")))) {
+            link(hierarchy.groupParents, hierarchy.groupChildren, group.getId(), group.getGroupId());
+        }
+        for (Device device : storage.getObjects(Device.class, new Request(new Columns.Include("id", "groupId")))) {
+            link(hierarchy.deviceParents, hierarchy.groupDevices, device.getId(), device.getGroupId());
+        }
+        return hierarchy;
+    }
+
+    private static Access computeAccess(
+            Hierarchy hierarchy, List<Permission> groupPermissions, List<Permission> devicePermissions) {
+        Set<Long> groups = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        for (Permission permission : groupPermissions) {
+            queue.add(permission.getPropertyId());
+        }
+        while (!queue.isEmpty()) {
+            long groupId = queue.poll();
+            if (groups.add(groupId)) {
+                queue.addAll(hierarchy.groupChildren.getOrDefault(groupId, Set.of()));
+            }
+        }
+
+        Set<Long> devices = new HashSet<>();
+        for (Permission permission : devicePermissions) {
+            devices.add(permission.getPropertyId());
+        }
+        for (long groupId : groups) {
+            devices.addAll(hierarchy.groupDevices.getOrDefault(groupId, Set.of()));
+        }
+
+        return new Access(Collections.unmodifiableSet(devices), Collections.unmodifiableSet(groups));
+    }
+
+    private Access getAccess(long userId) throws StorageException {
+        Hierarchy currentHierarchy;
+        long currentVersion;
+        synchronized (this) {
+            Access access = users.get(userId);
+            if (access != null) {
+                return access;
+            }
+            currentHierarchy = hierarchy;
+            currentVersion = version;
+        }
+
+        Storage storage = storageProvider.get();
+        if (currentHierarchy == null) {
+            currentHierarchy = loadHierarchy(storage);
+        }
+        List<Permission> groupPermissions = storage.getPermissions(User.class, userId, Group.class, 0);
+        List<Permission> devicePermissions = storage.getPermissions(User.class, userId, Device.class, 0);
+
+        synchronized (this) {
+            boolean current = version == currentVersion;
+            if (current && hierarchy == null) {
+                hierarchy = currentHierarchy;
+            }
+            Access access = computeAccess(currentHierarchy, groupPermissions, devicePermissions);
+            if (current) {
+                users.put(userId, access);
+            }
+            return access;
+        }
+    }
+
+    /**
+     * Update parent group of a device or a group.
+     */
+    public synchronized void updateObject(Class<?> clazz, long id, long groupId) {
+        if (!isSupported(clazz)) {
+            return;
+        }
+        version += 1;
+        if (hierarchy == null) {
+            return;
+        }
+        boolean device = clazz.equals(Device.class);
+        Map<Long, Long> parents = device ? hierarchy.deviceParents : hierarchy.groupParents;
+        if (parents.getOrDefault(id, 0L) != groupId) {
+            link(parents, device ? hierarchy.groupDevices : hierarchy.groupChildren, id, groupId);
+            users.clear();
+        }
+    }
+
+    public synchronized void updatePermission(Class<?> ownerClass, long ownerId, Class<?> propertyClass) {
+        if (ownerClass.equals(User.class) && isSupported(propertyClass)) {
+            version += 1;
+            users.remove(ownerId);
+        }
+    }
+
+    /**
+     * Drop all cached data. Used for bulk changes and changes made by other cluster nodes.
+     */
+    public synchronized void invalidate() {
+        version += 1;
+        hierarchy = null;
+        users.clear();
+    }
+
+}
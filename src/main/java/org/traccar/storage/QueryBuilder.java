@@ -17,10 +17,12 @@ package org.traccar.storage;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.traccar.config.Config;
 import org.traccar.config.Keys;
+import org.traccar.helper.AccessorCache;
 import org.traccar.helper.ReflectionCache;
 import org.traccar.model.Permission;
 
@@ -42,7 +44,17 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -182,28 +194,34 @@ public final class QueryBuilder {
 
     public QueryBuilder setObject(Object object, List<String> columns) throws SQLException {
         try {
+            var getters = ReflectionCache.getProperties(object.getClass(), "get");
             for (int index = 0; index < columns.size(); index++) {
                 String column = columns.get(index);
-                Method method = ReflectionCache.getProperties(object.getClass(), "get").get(column).method();
-                if (method.getReturnType().equals(boolean.class)) {
-                    setBoolean(index, (Boolean) method.invoke(object));
-                } else if (method.getReturnType().equals(int.class)) {
-                    setInteger(index, (Integer) method.invoke(object));
-                } else if (method.getReturnType().equals(long.class)) {
-                    setLong(index, (Long) method.invoke(object), column.endsWith("Id"));
-                } else if (method.getReturnType().equals(double.class)) {
-                    setDouble(index, (Double) method.invoke(object));
-                } else if (method.getReturnType().equals(String.class)) {
-                    setString(index, (String) method.invoke(object));
-                } else if (method.getReturnType().equals(Date.class)) {
-                    setDate(index, (Date) method.invoke(object));
-                } else if (method.getReturnType().equals(byte[].class)) {
-                    setBlob(index, (byte[]) method.invoke(object));
+                Method method = getters.get(column).method();
+                Class<?> type = method.getReturnType();
+                if (type.equals(boolean.class)) {
+                    setBoolean(index, AccessorCache.<Predicate<Object>>getGetter(method).test(object));
+                } else if (type.equals(int.class)) {
+                    setInteger(index, AccessorCache.<ToIntFunction<Object>>getGetter(method).applyAsInt(object));
+                } else if (type.equals(long.class)) {
+                    setLong(index, AccessorCache.<ToLongFunction<Object>>getGetter(method).applyAsLong(object),
+                            column.endsWith("Id"));
+                } else if (type.equals(double.class)) {
+                    setDouble(index, AccessorCache.<ToDoubleFunction<Object>>getGetter(method).applyAsDouble(object));
                 } else {
-                    setString(index, objectMapper.writeValueAsString(method.invoke(object)));
+                    Object value = AccessorCache.<Function<Object, Object>>getGetter(method).apply(object);
+                    if (type.equals(String.class)) {
+                        setString(index, (String) value);
+                    } else if (type.equals(Date.class)) {
+                        setDate(index, (Date) value);
+                    } else if (type.equals(byte[].class)) {
+                        setBlob(index, (byte[]) value);
+                    } else {
+                        setString(index, objectMapper.writeValueAsString(value));
+                    }
                 }
             }
-        } catch (ReflectiveOperationException | JsonProcessingException e) {
+        } catch (JsonProcessingException e) {
             LOGGER.warn("Set object error", e);
         }
 
@@ -211,38 +229,46 @@ public final class QueryBuilder {
     }
 
     private interface ResultSetProcessor<T> {
-        void process(T object, ResultSet resultSet) throws ReflectiveOperationException, IOException, SQLException;
+        void process(T object, ResultSet resultSet) throws IOException, SQLException;
     }
 
     private <T> void addProcessors(
             List<ResultSetProcessor<T>> processors,
-            final Class<?> parameterType, final Method method, final String name) {
+            final Class<?> parameterType, final Method method, final int column) {
         if (parameterType.equals(boolean.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getBoolean(name)));
+            AccessorCache.BooleanSetter setter = AccessorCache.getSetter(method);
+            processors.add((object, resultSet) -> setter.accept(object, resultSet.getBoolean(column)));
         } else if (parameterType.equals(int.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getInt(name)));
+            ObjIntConsumer<Object> setter = AccessorCache.getSetter(method);
+            processors.add((object, resultSet) -> setter.accept(object, resultSet.getInt(column)));
         } else if (parameterType.equals(long.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getLong(name)));
+            ObjLongConsumer<Object> setter = AccessorCache.getSetter(method);
+            processors.add((object, resultSet) -> setter.accept(object, resultSet.getLong(column)));
         } else if (parameterType.equals(double.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getDouble(name)));
-        } else if (parameterType.equals(String.class)) {
-            processors.add((object, resultSet) -> method.invoke(object, resultSet.getString(name)));
-        } else if (parameterType.equals(Date.class)) {
-            processors.add((object, resultSet) -> {
-                Timestamp timestamp = resultSet.getTimestamp(name);
-                if (timestamp != null) {
-                    method.invoke(object, new Date(timestamp.getTime()));
-                }
-            });
-        } else if (parameterType.equals(byte[].class)) {
-            processors.add((object, resultSet) -> method.invoke(object, (Object) resultSet.getBytes(name)));
+            ObjDoubleConsumer<Object> setter = AccessorCache.getSetter(method);
+            processors.add((object, resultSet) -> setter.accept(object, resultSet.getDouble(column)));
         } else {
-            processors.add((object, resultSet) -> {
-                String value = resultSet.getString(name);
-                if (value != null && !value.isEmpty()) {
-                    method.invoke(object, objectMapper.readValue(value, parameterType));
-                }
-            });
+            BiConsumer<Object, Object> setter = AccessorCache.getSetter(method);
+            if (parameterType.equals(String.class)) {
+                processors.add((object, resultSet) -> setter.accept(object, resultSet.getString(column)));
+            } else if (parameterType.equals(Date.class)) {
+                processors.add((object, resultSet) -> {
+                    Timestamp timestamp = resultSet.getTimestamp(column);
+                    if (timestamp != null) {
+                        setter.accept(object, new Date(timestamp.getTime()));
+                    }
+                });
+            } else if (parameterType.equals(byte[].class)) {
+                processors.add((object, resultSet) -> setter.accept(object, resultSet.getBytes(column)));
+            } else {
+                ObjectReader reader = objectMapper.readerFor(parameterType);
+                processors.add((object, resultSet) -> {
+                    String value = resultSet.getString(column);
+                    if (value != null && !value.isEmpty()) {
+                        setter.accept(object, reader.readValue(value));
+                    }
+                });
+            }
         }
     }
 
@@ -272,19 +298,20 @@ public final class QueryBuilder {
             List<ResultSetProcessor<T>> processors = new ArrayList<>();
             for (var entry : ReflectionCache.getProperties(clazz, "set").entrySet()) {
                 final String name = entry.getKey();
-                boolean column = false;
+                int column = 0;
                 for (int i = 1; i <= resultMetaData.getColumnCount(); i++) {
                     if (name.equalsIgnoreCase(resultMetaData.getColumnLabel(i))) {
-                        column = true;
+                        column = i;
                         break;
                     }
                 }
-                if (column) {
+                if (column > 0) {
                     Method method = entry.getValue().method();
-                    addProcessors(processors, method.getParameterTypes()[0], method, name);
+                    addProcessors(processors, method.getParameterTypes()[0], method, column);
                 }
             }
 
+            final Supplier<T> constructor = AccessorCache.getConstructor(clazz);
             final ResultSet retainedResultSet = resultSet;
             return StreamSupport.stream(
                     new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED) {
@@ -292,11 +319,11 @@ public final class QueryBuilder {
                         public boolean tryAdvance(Consumer<? super T> action) {
                             try {
                                 if (retainedResultSet.next()) {
-                                    T object = clazz.getDeclaredConstructor().newInstance();
+                                    T object = constructor.get();
                                     for (ResultSetProcessor<T> processor : processors) {
                                         try {
                                             processor.process(object, retainedResultSet);
-                                        } catch (ReflectiveOperationException | IOException error) {
+                                        } catch (IOException | RuntimeException error) {
                                             LOGGER.warn("Set property error", error);
                                         }
                                     }
@@ -305,7 +332,7 @@ public final class QueryBuilder {
                                 } else {
                                     return false;
                                 }
-                            } catch (SQLException | ReflectiveOperationException e) {
+                            } catch (SQLException e) {
                                 throw new RuntimeException(e);
                             }
                         }
@@ -349,6 +376,45 @@ public final class QueryBuilder {
         return 0;
     }
 
+    public QueryBuilder addBatch() throws SQLException {
+        return setValue(() -> statement.addBatch());
+    }
+
+    public long[] executeBatch() throws SQLException {
+        if (query == null) {
+            return new long[0];
+        }
+        try {
+            logQuery();
+            connection.setAutoCommit(false);
+            try {
+                int count = statement.executeBatch().length;
+                long[] result = new long[count];
+                if (returnGeneratedKeys) {
+                    try (ResultSet resultSet = statement.getGeneratedKeys()) {
+                        for (int index = 0; index < count; index++) {
+                            if (!resultSet.next()) {
+                                throw new SQLException(
+                                        "Expected " + count + " generated keys, received " + index);
+                            }
+                            result[index] = resultSet.getLong(1);
+                        }
+                    }
+                }
+                connection.commit();
+                return result;
+            } catch (SQLException error) {
+                connection.rollback();
+                throw error;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            statement.close();
+            connection.close();
+        }
+    }
+
     public List<Permission> executePermissionsQuery() throws SQLException {
         List<Permission> result = new LinkedList<>();
         if (query != null) {
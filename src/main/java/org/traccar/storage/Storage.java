@@ -17,8 +17,11 @@ package org.traccar.storage;
 
 import org.traccar.model.BaseModel;
 import org.traccar.model.Permission;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
 import org.traccar.storage.query.Request;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -30,8 +33,22 @@ public abstract class Storage {
 
     public abstract <T> long addObject(T entity, Request request) throws StorageException;
 
+    public <T> long[] addObjects(List<T> entities, Request request) throws StorageException {
+        long[] result = new long[entities.size()];
+        for (int index = 0; index < entities.size(); index++) {
+            result[index] = addObject(entities.get(index), request);
+        }
+        return result;
+    }
+
     public abstract <T> void updateObject(T entity, Request request) throws StorageException;
 
+    public <T extends BaseModel> void updateObjects(List<T> entities, Columns columns) throws StorageException {
+        for (T entity : entities) {
+            updateObject(entity, new Request(columns, new Condition.Equals("id", entity.getId())));
+        }
+    }
+
     public abstract void removeObject(Class<?> clazz, Request request) throws StorageException;
 
     public abstract List<Permission> getPermissions(
@@ -48,6 +65,18 @@ public abstract class Storage {
         return getPermissions(ownerClass, 0, propertyClass, 0);
     }
 
+    /**
+     * Get permissions for multiple owners or properties at once. Null ids mean no filtering on that side.
+     */
+    public List<Permission> getPermissions(
+            Class<? extends BaseModel> ownerClass, Collection<Long> ownerIds,
+            Class<? extends BaseModel> propertyClass, Collection<Long> propertyIds) throws StorageException {
+        return getPermissions(ownerClass, propertyClass).stream()
+                .filter(permission -> ownerIds == null || ownerIds.contains(permission.getOwnerId()))
+                .filter(permission -> propertyIds == null || propertyIds.contains(permission.getPropertyId()))
+                .toList();
+    }
+
     public <T> T getObject(Class<T> clazz, Request request) throws StorageException {
         try (var objects = getObjectsStream(clazz, request)) {
             return objects.findFirst().orElse(null);
@@ -39,6 +39,16 @@ public abstract class Columns {
         public List<String> getColumns(Class<?> clazz, String type) {
             return getAllColumns(clazz, type);
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o != null && getClass() == o.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
     }
 
     public static class Include extends Columns {
@@ -52,6 +62,16 @@ public abstract class Columns {
         public List<String> getColumns(Class<?> clazz, String type) {
             return columns;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Include other && getClass() == o.getClass() && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return columns.hashCode();
+        }
     }
 
     public static class Exclude extends Columns {
@@ -67,6 +87,16 @@ public abstract class Columns {
                     .filter(column -> !columns.contains(column))
                     .collect(Collectors.toList());
         }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Exclude other && getClass() == o.getClass() && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return columns.hashCode();
+        }
     }
 
 }
@@ -17,6 +17,7 @@ package org.traccar.storage.query;
 
 import org.traccar.model.GroupedModel;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface Condition {
@@ -63,6 +64,24 @@ public interface Condition {
         }
     }
 
+    class In implements Condition {
+        private final String column;
+        private final List<Object> values;
+
+        public In(String column, Collection<?> values) {
+            this.column = column;
+            this.values = List.copyOf(values);
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public List<Object> getValues() {
+            return values;
+        }
+    }
+
     class Between implements Condition {
         private final String column;
         private final Object fromValue;
@@ -0,0 +1,121 @@
+package org.traccar;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.DatagramChannel;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BackpressureManagerTest {
+
+    private ChannelHandlerContext createContext(Channel channel) {
+        var context = mock(ChannelHandlerContext.class);
+        when(context.channel()).thenReturn(channel);
+        return context;
+    }
+
+    @Test
+    public void testWatermarkHysteresis() {
+        var config = new Config();
+        config.setString(Keys.SERVER_BACKPRESSURE_HIGH_WATERMARK, "4");
+        config.setString(Keys.SERVER_BACKPRESSURE_LOW_WATERMARK, "2");
+        var accepted = new AtomicInteger();
+        var manager = new BackpressureManager(config, (context, position) -> accepted.incrementAndGet(), () -> 0);
+
+        var channel = new EmbeddedChannel();
+        var context = createContext(channel);
+
+        for (int i = 0; i < 4; i++) {
+            manager.accept(context, new Position());
+        }
+        assertTrue(channel.config().isAutoRead());
+
+        manager.accept(context, new Position());
+        assertFalse(channel.config().isAutoRead());
+        assertEquals(5, accepted.get());
+
+        manager.release(context);
+        manager.release(context);
+        assertFalse(channel.config().isAutoRead());
+
+        manager.release(context);
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void testExternalPending() {
+        var config = new Config();
+        config.setString(Keys.SERVER_BACKPRESSURE_HIGH_WATERMARK, "4");
+        config.setString(Keys.SERVER_BACKPRESSURE_LOW_WATERMARK, "2");
+        var external = new AtomicInteger(4);
+        var manager = new BackpressureManager(config, (context, position) -> { }, external::get);
+
+        var channel = new EmbeddedChannel();
+        var context = createContext(channel);
+
+        manager.accept(context, new Position());
+        assertFalse(channel.config().isAutoRead());
+
+        external.set(1);
+        manager.update();
+        assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void testClosedChannel() {
+        var config = new Config();
+        config.setString(Keys.SERVER_BACKPRESSURE_HIGH_WATERMARK, "1");
+        var manager = new BackpressureManager(config, (context, position) -> { }, () -> 0);
+
+        var channel = new EmbeddedChannel();
+        var context = createContext(channel);
+
+        manager.accept(context, new Position());
+        manager.accept(context, new Position());
+        assertFalse(channel.config().isAutoRead());
+
+        manager.remove(channel);
+        manager.release(context);
+        manager.release(context);
+        assertFalse(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void testDatagramSpoolLimit() {
+        var config = new Config();
+        config.setString(Keys.SERVER_BACKPRESSURE_HIGH_WATERMARK, "1");
+        config.setString(Keys.SERVER_BACKPRESSURE_DATAGRAM_POLICY, "spool");
+        config.setString(Keys.SERVER_BACKPRESSURE_SPOOL_SIZE, "2");
+        var accepted = new AtomicInteger();
+        var manager = new BackpressureManager(config, (context, position) -> accepted.incrementAndGet(), () -> 0);
+
+        var channel = mock(DatagramChannel.class);
+        when(channel.eventLoop()).thenReturn(mock(EventLoop.class));
+        var context = createContext(channel);
+
+        for (int i = 0; i < 4; i++) {
+            manager.accept(context, new Position());
+        }
+        assertEquals(1, accepted.get());
+
+        manager.release(context);
+        assertEquals(2, accepted.get());
+        manager.release(context);
+        assertEquals(3, accepted.get());
+        manager.release(context);
+        assertEquals(3, accepted.get());
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.traccar;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.EventExecutor;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class ProcessingExecutorTest {
+
+    private static ProcessingExecutor createExecutor(int threads) {
+        var config = new Config();
+        config.setString(Keys.SERVER_PROCESSING_THREADS, String.valueOf(threads));
+        return new ProcessingExecutor(config);
+    }
+
+    @Test
+    public void testDeviceLane() throws Exception {
+        var executor = createExecutor(4);
+        var ctx = mock(ChannelHandlerContext.class);
+
+        int count = 1000;
+        CountDownLatch latch = new CountDownLatch(2 * count);
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        Set<Thread> firstThreads = Collections.synchronizedSet(new HashSet<>());
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            executor.execute(ctx, 1, () -> {
+                firstThreads.add(Thread.currentThread());
+                first.add(index);
+                latch.countDown();
+            });
+            executor.execute(ctx, 2, () -> {
+                second.add(index);
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, first.get(i));
+            assertEquals(i, second.get(i));
+        }
+        assertEquals(1, firstThreads.size());
+        assertFalse(firstThreads.contains(Thread.currentThread()));
+        verifyNoInteractions(ctx);
+    }
+
+    @Test
+    public void testNestedTask() throws Exception {
+        var executor = createExecutor(2);
+        var ctx = mock(ChannelHandlerContext.class);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> result = Collections.synchronizedList(new ArrayList<>());
+        executor.execute(ctx, 1, () -> {
+            executor.execute(ctx, 1, () -> result.add("nested"));
+            result.add("outer");
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("nested", "outer"), result);
+    }
+
+    @Test
+    public void testEventLoopFallback() {
+        var executor = createExecutor(0);
+        var eventExecutor = mock(EventExecutor.class);
+        var ctx = mock(ChannelHandlerContext.class);
+        when(ctx.executor()).thenReturn(eventExecutor);
+
+        Runnable task = mock(Runnable.class);
+        executor.execute(ctx, 1, task);
+        verify(eventExecutor).execute(task);
+        verify(task, never()).run();
+
+        when(eventExecutor.inEventLoop()).thenReturn(true);
+        Runnable inline = mock(Runnable.class);
+        executor.execute(ctx, 1, inline);
+        verify(inline).run();
+        verify(eventExecutor, never()).execute(inline);
+    }
+
+    @Test
+    public void testStatistics() {
+        assertTrue(createExecutor(0).getStatistics().isEmpty());
+        assertEquals(3, createExecutor(3).getStatistics().size());
+    }
+
+}
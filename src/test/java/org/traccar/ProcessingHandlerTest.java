@@ -0,0 +1,130 @@
+package org.traccar;
+
+import com.google.inject.Injector;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.ImmediateEventExecutor;
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.NotificationManager;
+import org.traccar.handler.BasePositionHandler;
+import org.traccar.handler.DatabaseHandler;
+import org.traccar.handler.PostProcessHandler;
+import org.traccar.helper.PositionLogger;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProcessingHandlerTest {
+
+    private final CacheManager cacheManager = mock(CacheManager.class);
+    private final ChannelHandlerContext context = mock(ChannelHandlerContext.class);
+    private final List<Position> processed = Collections.synchronizedList(new ArrayList<>());
+
+    private ProcessingHandler createHandler(int threads) {
+        BasePositionHandler positionHandler = new BasePositionHandler() {
+            @Override
+            public void onPosition(Position position, Callback callback) {
+                processed.add(position);
+                callback.processed(false);
+            }
+        };
+        var postProcessHandler = mock(PostProcessHandler.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, BasePositionHandler.Callback.class).processed(false);
+            return null;
+        }).when(postProcessHandler).handlePosition(any(), any());
+
+        var injector = mock(Injector.class);
+        doReturn(positionHandler).when(injector).getInstance(DatabaseHandler.class);
+        doReturn(postProcessHandler).when(injector).getInstance(PostProcessHandler.class);
+
+        when(context.executor()).thenReturn(ImmediateEventExecutor.INSTANCE);
+
+        var config = new Config();
+        config.setString(Keys.SERVER_BUFFERING_THRESHOLD, "0");
+        config.setString(Keys.SERVER_PROCESSING_THREADS, String.valueOf(threads));
+        return new ProcessingHandler(
+                injector, config, cacheManager, mock(NotificationManager.class), mock(PositionLogger.class),
+                new ProcessingExecutor(config), new ProcessingMetrics());
+    }
+
+    private Position createPosition(long deviceId) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        return position;
+    }
+
+    @Test
+    public void testIdleRemoval() throws Exception {
+        var handler = createHandler(0);
+
+        var first = createPosition(1);
+        handler.channelRead(context, first);
+        assertEquals(List.of(first), processed);
+        assertFalse(handler.hasQueue(1));
+
+        var second = createPosition(1);
+        var third = createPosition(1);
+        doAnswer(invocation -> {
+            if (processed.size() == 2) {
+                handler.channelRead(context, third);
+            }
+            return null;
+        }).when(cacheManager).removeDevice(anyLong(), any());
+        handler.channelRead(context, second);
+        assertEquals(List.of(first, second, third), processed);
+        assertFalse(handler.hasQueue(1));
+    }
+
+    @Test
+    public void testConcurrentOffer() throws Exception {
+        var handler = createHandler(4);
+
+        int threads = 8;
+        int count = 1000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < count; j++) {
+                        handler.channelRead(context, createPosition(1));
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            thread.start();
+            producers.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : producers) {
+            thread.join();
+        }
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while ((processed.size() < threads * count || handler.hasQueue(1))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(threads * count, processed.size());
+        assertFalse(handler.hasQueue(1));
+    }
+
+}
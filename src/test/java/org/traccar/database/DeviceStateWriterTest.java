@@ -0,0 +1,151 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.storage.Storage;
+import org.traccar.storage.query.Columns;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DeviceStateWriterTest {
+
+    private Config createConfig() {
+        var config = new Config();
+        config.setString(Keys.DATABASE_DEVICE_UPDATE_INTERVAL, "60000");
+        return config;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCoalescing() throws Exception {
+        var storage = mock(Storage.class);
+        List<List<Device>> writes = new ArrayList<>();
+        doAnswer(invocation -> writes.add(new ArrayList<>(invocation.getArgument(0, List.class))))
+                .when(storage).updateObjects(anyList(), any(Columns.class));
+
+        var writer = new DeviceStateWriter(createConfig(), storage);
+        writer.start();
+        writer.updatePositionId(1, 10);
+        writer.updatePositionId(1, 11);
+        writer.updatePositionId(2, 20);
+        writer.updatePositionId(1, 12);
+        writer.stop();
+
+        verify(storage, times(1)).updateObjects(anyList(), any(Columns.class));
+        assertEquals(2, writes.get(0).size());
+        for (Device device : writes.get(0)) {
+            assertEquals(device.getId() == 1 ? 12 : 20, device.getPositionId());
+        }
+    }
+
+    @Test
+    public void testImmediateMerge() throws Exception {
+        var storage = mock(Storage.class);
+        var writer = new DeviceStateWriter(createConfig(), storage);
+        writer.start();
+        writer.updatePositionId(1, 10);
+        writer.updateStatus(1, Device.STATUS_OFFLINE, new Date(), true);
+
+        verify(storage, times(1)).updateObjects(anyList(), any(Columns.class));
+        writer.stop();
+        verify(storage, times(1)).updateObjects(anyList(), any(Columns.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImmediateAfterFlush() throws Exception {
+        var storage = mock(Storage.class);
+        List<String> statuses = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch flushRelease = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Device device = (Device) invocation.getArgument(0, List.class).get(0);
+            if (Device.STATUS_ONLINE.equals(device.getStatus())) {
+                flushStarted.countDown();
+                flushRelease.await(5, TimeUnit.SECONDS);
+            }
+            statuses.add(device.getStatus());
+            return null;
+        }).when(storage).updateObjects(anyList(), any(Columns.class));
+
+        var writer = new DeviceStateWriter(createConfig(), storage);
+        writer.start();
+        writer.updateStatus(1, Device.STATUS_ONLINE, new Date(), false);
+
+        Thread flushThread = new Thread(() -> {
+            try {
+                writer.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        flushThread.start();
+        assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+
+        Thread immediateThread = new Thread(
+                () -> writer.updateStatus(1, Device.STATUS_OFFLINE, new Date(), true));
+        immediateThread.start();
+        Thread.sleep(100);
+        flushRelease.countDown();
+        flushThread.join();
+        immediateThread.join();
+
+        assertEquals(List.of(Device.STATUS_ONLINE, Device.STATUS_OFFLINE), statuses);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testImmediateDuringFlush() throws Exception {
+        var storage = mock(Storage.class);
+        List<Long> devices = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch flushRelease = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Device device = (Device) invocation.getArgument(0, List.class).get(0);
+            if (device.getId() == 1) {
+                flushStarted.countDown();
+                flushRelease.await(5, TimeUnit.SECONDS);
+            }
+            devices.add(device.getId());
+            return null;
+        }).when(storage).updateObjects(anyList(), any(Columns.class));
+
+        var writer = new DeviceStateWriter(createConfig(), storage);
+        writer.start();
+        writer.updatePositionId(1, 10);
+
+        Thread flushThread = new Thread(() -> {
+            try {
+                writer.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        flushThread.start();
+        assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+
+        writer.updateStatus(2, Device.STATUS_OFFLINE, new Date(), true);
+        assertEquals(List.of(2L), devices);
+
+        flushRelease.countDown();
+        flushThread.join();
+        assertEquals(List.of(2L, 1L), devices);
+    }
+
+}
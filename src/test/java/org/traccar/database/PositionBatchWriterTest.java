@@ -0,0 +1,103 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.storage.MemoryStorage;
+import org.traccar.storage.Storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PositionBatchWriterTest {
+
+    private PositionBatchWriter createWriter(Config config) {
+        return new PositionBatchWriter(
+                config, new MemoryStorage(), mock(StatisticsManager.class), mock(PositionJournal.class));
+    }
+
+    @Test
+    public void testDirectWrite() {
+        var writer = createWriter(new Config());
+
+        Position position = new Position();
+        List<Long> ids = new ArrayList<>();
+        writer.write(position, () -> ids.add(position.getId()));
+
+        assertEquals(1, ids.size());
+        assertNotEquals(0, ids.get(0));
+    }
+
+    @Test
+    public void testBatchWrite() throws Exception {
+        var config = new Config();
+        config.setString(Keys.DATABASE_BATCH_SIZE, "10");
+        config.setString(Keys.DATABASE_BATCH_DELAY, "50");
+        var writer = createWriter(config);
+        writer.start();
+
+        CountDownLatch latch = new CountDownLatch(25);
+        List<Position> positions = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Position position = new Position();
+            positions.add(position);
+            writer.write(position, () -> {
+                assertNotEquals(0, position.getId());
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        writer.stop();
+        assertEquals(25, positions.stream().mapToLong(Position::getId).distinct().count());
+    }
+
+    @Test
+    public void testWriteAfterStop() throws Exception {
+        var config = new Config();
+        config.setString(Keys.DATABASE_BATCH_SIZE, "10");
+        var writer = createWriter(config);
+        writer.start();
+        writer.stop();
+
+        Position position = new Position();
+        List<Long> ids = new ArrayList<>();
+        writer.write(position, () -> ids.add(position.getId()));
+
+        assertEquals(1, ids.size());
+        assertNotEquals(0, ids.get(0));
+    }
+
+    @Test
+    public void testJournalPending() throws Exception {
+        var storage = mock(Storage.class);
+        var journal = mock(PositionJournal.class);
+        when(journal.hasPending()).thenReturn(true);
+        var writer = new PositionBatchWriter(new Config(), storage, mock(StatisticsManager.class), journal);
+
+        Position first = new Position();
+        List<Position> written = new ArrayList<>();
+        when(journal.append(first)).thenReturn(true);
+        writer.write(first, () -> written.add(first));
+
+        Position second = new Position();
+        writer.write(second, () -> written.add(second));
+
+        assertEquals(List.of(first, second), written);
+        verify(journal).append(second);
+        verify(storage, never()).addObject(any(), any());
+    }
+
+}
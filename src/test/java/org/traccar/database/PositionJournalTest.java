@@ -0,0 +1,286 @@
+package org.traccar.database;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.traccar.MainModule;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Position;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.Storage;
+import org.traccar.storage.StorageException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PositionJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private final List<Long> stored = new ArrayList<>();
+    private final List<Integer> batches = new ArrayList<>();
+    private final Set<Long> rejected = new HashSet<>();
+    private Exception failure;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp() throws StorageException {
+        storage = mock(Storage.class);
+        when(storage.addObject(any(), any())).thenAnswer(invocation -> {
+            Position position = invocation.getArgument(0);
+            if (failure != null) {
+                throw new StorageException(failure);
+            }
+            if (rejected.contains(position.getDeviceId())) {
+                throw new StorageException(new SQLIntegrityConstraintViolationException("foreign key"));
+            }
+            stored.add(position.getDeviceId());
+            return (long) stored.size();
+        });
+        when(storage.addObjects(any(), any())).thenAnswer(invocation -> {
+            List<Position> positions = invocation.getArgument(0);
+            batches.add(positions.size());
+            if (failure != null) {
+                throw new StorageException(failure);
+            }
+            for (Position position : positions) {
+                if (rejected.contains(position.getDeviceId())) {
+                    throw new StorageException(new SQLIntegrityConstraintViolationException("foreign key"));
+                }
+            }
+            long[] ids = new long[positions.size()];
+            for (int i = 0; i < positions.size(); i++) {
+                stored.add(positions.get(i).getDeviceId());
+                ids[i] = stored.size();
+            }
+            return ids;
+        });
+    }
+
+    private PositionJournal createJournal(int segmentSize) {
+        var config = new Config();
+        config.setString(Keys.DATABASE_JOURNAL_PATH, directory.toString());
+        config.setString(Keys.DATABASE_JOURNAL_SEGMENT_SIZE, String.valueOf(segmentSize));
+        return new PositionJournal(
+                config, storage, MainModule.provideObjectMapper(), mock(StatisticsManager.class),
+                mock(CacheManager.class), mock(DeviceStateWriter.class));
+    }
+
+    private Position createPosition(long deviceId) {
+        Position position = new Position("test");
+        position.setDeviceId(deviceId);
+        position.setTime(new Date());
+        position.setLatitude(10);
+        position.setLongitude(20);
+        return position;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(file -> file.toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    /**
+     * Find offset of the record with given index in a segment file.
+     */
+    private long findRecord(RandomAccessFile file, int index) throws IOException {
+        long offset = Long.BYTES;
+        for (int i = 0; i < index; i++) {
+            file.seek(offset);
+            offset += Integer.BYTES * 2 + file.readInt();
+        }
+        return offset;
+    }
+
+    @Test
+    public void testReplayOrder() throws Exception {
+        var journal = createJournal(2048);
+        journal.start();
+        for (int i = 1; i <= 20; i++) {
+            assertTrue(journal.append(createPosition(i)));
+        }
+        assertTrue(journal.hasPending());
+        assertTrue(listSegments().size() > 1);
+
+        journal.replay();
+        journal.stop();
+
+        assertEquals(20, stored.size());
+        for (int i = 0; i < stored.size(); i++) {
+            assertEquals(i + 1, stored.get(i));
+        }
+        assertFalse(journal.hasPending());
+        assertTrue(listSegments().isEmpty());
+    }
+
+    @Test
+    public void testReplayBatches() throws Exception {
+        var journal = createJournal(1024 * 1024);
+        journal.start();
+        for (int i = 1; i <= 1200; i++) {
+            assertTrue(journal.append(createPosition(i)));
+        }
+
+        assertFalse(journal.replay());
+        journal.stop();
+
+        assertEquals(List.of(500, 500, 200), batches);
+        assertEquals(1200, stored.size());
+        for (int i = 0; i < stored.size(); i++) {
+            assertEquals(i + 1, stored.get(i));
+        }
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        var journal = createJournal(4096);
+        journal.start();
+        for (int i = 1; i <= 3; i++) {
+            journal.append(createPosition(i));
+        }
+        journal.stop();
+
+        journal = createJournal(4096);
+        journal.start();
+        assertTrue(journal.hasPending());
+        journal.append(createPosition(4));
+        journal.replay();
+        journal.stop();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), stored);
+    }
+
+    @Test
+    public void testChecksum() throws Exception {
+        var journal = createJournal(4096);
+        journal.start();
+        for (int i = 1; i <= 3; i++) {
+            journal.append(createPosition(i));
+        }
+        journal.stop();
+
+        try (var file = new RandomAccessFile(listSegments().get(0).toFile(), "rw")) {
+            long offset = findRecord(file, 1) + Integer.BYTES * 2 + 1;
+            file.seek(offset);
+            byte value = file.readByte();
+            file.seek(offset);
+            file.writeByte(value ^ 0xff);
+        }
+
+        journal = createJournal(4096);
+        journal.start();
+        journal.replay();
+        journal.stop();
+
+        assertEquals(List.of(1L), stored);
+    }
+
+    @Test
+    public void testTornRecord() throws Exception {
+        var journal = createJournal(4096);
+        journal.start();
+        for (int i = 1; i <= 3; i++) {
+            journal.append(createPosition(i));
+        }
+        journal.stop();
+
+        try (var file = new RandomAccessFile(listSegments().get(0).toFile(), "rw")) {
+            long offset = findRecord(file, 2);
+            file.seek(offset);
+            int length = file.readInt();
+            file.seek(offset + Integer.BYTES * 2 + length / 2);
+            file.write(new byte[length - length / 2]);
+        }
+
+        journal = createJournal(4096);
+        journal.start();
+        journal.append(createPosition(4));
+        journal.replay();
+        journal.stop();
+
+        assertEquals(List.of(1L, 2L, 4L), stored);
+    }
+
+    @Test
+    public void testRejectedRecord() throws Exception {
+        rejected.add(2L);
+        var journal = createJournal(4096);
+        journal.start();
+        for (int i = 1; i <= 3; i++) {
+            journal.append(createPosition(i));
+        }
+        journal.replay();
+        journal.stop();
+
+        assertEquals(List.of(1L, 3L), stored);
+        assertEquals(List.of(3, 1, 1, 1), batches);
+        assertFalse(journal.hasPending());
+        assertEquals(1, Files.readAllLines(directory.resolve("quarantine.json")).size());
+    }
+
+    @Test
+    public void testFailingRecord() throws Exception {
+        var journal = createJournal(4096);
+        journal.start();
+        for (int i = 1; i <= 2; i++) {
+            journal.append(createPosition(i));
+        }
+
+        failure = new SQLException("unknown");
+        journal.replay();
+        assertTrue(journal.hasPending());
+        for (int i = 0; i < 10; i++) {
+            journal.replay();
+        }
+        failure = null;
+        journal.replay();
+        journal.stop();
+
+        assertEquals(List.of(2L), stored);
+        assertTrue(Files.exists(directory.resolve("quarantine.json")));
+    }
+
+    @Test
+    public void testUnavailableDatabase() throws Exception {
+        var journal = createJournal(4096);
+        journal.start();
+        for (int i = 1; i <= 2; i++) {
+            journal.append(createPosition(i));
+        }
+
+        failure = new SQLTransientConnectionException("timeout");
+        for (int i = 0; i < 20; i++) {
+            journal.replay();
+        }
+        assertTrue(journal.hasPending());
+
+        failure = null;
+        journal.replay();
+        journal.stop();
+
+        assertEquals(List.of(1L, 2L), stored);
+        assertFalse(Files.exists(directory.resolve("quarantine.json")));
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.traccar.geocoder;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AsyncGeocoderTest {
+
+    @Test
+    public void testCoalescing() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.GEOCODER_CACHE_SIZE)).thenReturn(1000);
+        when(config.getInteger(Keys.GEOCODER_CACHE_PRECISION)).thenReturn(3);
+        Geocoder delegate = mock(Geocoder.class);
+        var geocoder = new AsyncGeocoder(config, delegate);
+
+        var first = mock(Geocoder.ReverseGeocoderCallback.class);
+        var second = mock(Geocoder.ReverseGeocoderCallback.class);
+        geocoder.getAddress(10.00001, 20.00001, first);
+        geocoder.getAddress(10.00002, 20.00002, second);
+
+        var captor = ArgumentCaptor.forClass(Geocoder.ReverseGeocoderCallback.class);
+        verify(delegate, times(1)).getAddress(anyDouble(), anyDouble(), captor.capture());
+        captor.getValue().onSuccess("address");
+        verify(first).onSuccess("address");
+        verify(second).onSuccess("address");
+
+        geocoder.getAddress(10.00001, 20.00001, first);
+        verify(delegate, times(2)).getAddress(anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    public void testRateLimit() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.GEOCODER_CACHE_SIZE)).thenReturn(1000);
+        when(config.getInteger(Keys.GEOCODER_CACHE_PRECISION)).thenReturn(3);
+        when(config.getDouble(Keys.GEOCODER_RATE_LIMIT)).thenReturn(1.0);
+        Geocoder delegate = mock(Geocoder.class);
+        var geocoder = new AsyncGeocoder(config, delegate);
+
+        var callback = mock(Geocoder.ReverseGeocoderCallback.class);
+        geocoder.getAddress(10, 20, callback);
+        geocoder.getAddress(30, 40, callback);
+
+        verify(delegate, times(1)).getAddress(anyDouble(), anyDouble(), any());
+        verify(callback).onSuccess(null);
+    }
+
+    @Test
+    public void testWithoutCache() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.GEOCODER_CACHE_PRECISION)).thenReturn(3);
+        Geocoder delegate = mock(Geocoder.class);
+        var geocoder = new AsyncGeocoder(config, delegate);
+
+        var callback = mock(Geocoder.ReverseGeocoderCallback.class);
+        geocoder.getAddress(10.00001, 20.00001, callback);
+        geocoder.getAddress(10.00001, 20.00001, callback);
+        geocoder.getAddress(10.00002, 20.00002, callback);
+
+        verify(delegate, times(2)).getAddress(anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    public void testSynchronousFailure() {
+        Config config = mock(Config.class);
+        Geocoder delegate = mock(Geocoder.class);
+        var error = new IllegalStateException("failure");
+        when(delegate.getAddress(anyDouble(), anyDouble(), any())).thenThrow(error);
+        var geocoder = new AsyncGeocoder(config, delegate);
+
+        var callback = mock(Geocoder.ReverseGeocoderCallback.class);
+        geocoder.getAddress(10, 20, callback);
+        verify(callback).onFailure(error);
+
+        geocoder.getAddress(10, 20, callback);
+        verify(delegate, times(2)).getAddress(anyDouble(), anyDouble(), any());
+        verify(callback, times(2)).onFailure(error);
+    }
+
+}
@@ -0,0 +1,37 @@
+package org.traccar.geocoder;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingGeocoderTest {
+
+    @Test
+    public void testQuantizedLookup() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.GEOCODER_CACHE_SIZE)).thenReturn(100);
+        when(config.getInteger(Keys.GEOCODER_CACHE_PRECISION)).thenReturn(3);
+        Geocoder delegate = mock(Geocoder.class);
+        when(delegate.getAddress(anyDouble(), anyDouble(), isNull())).thenReturn("address");
+
+        var geocoder = new CachingGeocoder(config, delegate);
+        assertEquals("address", geocoder.getAddress(10.00001, 20.00001, null));
+        assertEquals("address", geocoder.getAddress(10.00002, 20.00002, null));
+        assertEquals("address", geocoder.getAddress(10.1, 20.1, null));
+
+        verify(delegate, times(2)).getAddress(anyDouble(), anyDouble(), isNull());
+        var statistics = geocoder.getStatistics();
+        assertEquals(1, statistics.hits());
+        assertEquals(2, statistics.misses());
+        assertEquals(2, statistics.size());
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.traccar.geocoder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PersistentGeocoderTest {
+
+    @TempDir
+    private Path directory;
+
+    private Config createConfig(int fileSize) {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.GEOCODER_CACHE_PRECISION)).thenReturn(4);
+        when(config.getString(Keys.GEOCODER_CACHE_PATH)).thenReturn(directory.resolve("geocoder.cache").toString());
+        when(config.getInteger(Keys.GEOCODER_CACHE_FILE_SIZE)).thenReturn(fileSize);
+        return config;
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        Geocoder delegate = mock(Geocoder.class);
+        when(delegate.getAddress(anyDouble(), anyDouble(), isNull())).thenReturn("first", "second");
+
+        var geocoder = new PersistentGeocoder(createConfig(4096), delegate);
+        assertEquals("first", geocoder.getAddress(10, 20, null));
+        assertEquals("second", geocoder.getAddress(30, 40, null));
+
+        geocoder = new PersistentGeocoder(createConfig(4096), mock(Geocoder.class));
+        assertEquals("first", geocoder.getAddress(10, 20, null));
+        assertEquals("second", geocoder.getAddress(30, 40, null));
+        assertNull(geocoder.getAddress(50, 60, null));
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        Geocoder delegate = mock(Geocoder.class);
+        when(delegate.getAddress(anyDouble(), anyDouble(), isNull())).thenReturn("address");
+
+        var geocoder = new PersistentGeocoder(createConfig(1024), delegate);
+        for (int i = 0; i < 1000; i++) {
+            geocoder.getAddress(i, i, null);
+        }
+
+        geocoder = new PersistentGeocoder(createConfig(1024), mock(Geocoder.class));
+        assertEquals("address", geocoder.getAddress(999, 999, null));
+        assertNull(geocoder.getAddress(0, 0, null));
+    }
+
+}
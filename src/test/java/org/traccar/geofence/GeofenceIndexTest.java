@@ -0,0 +1,81 @@
+package org.traccar.geofence;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Geofence;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GeofenceIndexTest {
+
+    private static Geofence createGeofence(long id, GeofenceGeometry geometry) {
+        Geofence geofence = new Geofence();
+        geofence.setId(id);
+        geofence.setGeometry(geometry);
+        return geofence;
+    }
+
+    @Test
+    public void testMatchesLinearScan() throws ParseException {
+        Config config = mock(Config.class);
+        when(config.getDouble(Keys.GEOFENCE_POLYLINE_DISTANCE)).thenReturn(500.0);
+
+        Random random = new Random(1);
+        List<Geofence> geofences = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double lat = random.nextDouble() * 10 - 5;
+            double lon = random.nextDouble() * 10 - 5;
+            double size = random.nextDouble() * 0.5;
+            GeofenceGeometry geometry = switch (i % 3) {
+                case 0 -> new GeofencePolygon(String.format(Locale.ROOT, "POLYGON ((%f %f, %f %f, %f %f))",
+                        lat, lon, lat + size, lon, lat, lon + size));
+                case 1 -> new GeofenceCircle(lat, lon, size * 100000);
+                default -> new GeofencePolyline(String.format(Locale.ROOT, "LINESTRING (%f %f, %f %f)",
+                        lat, lon, lat + size, lon + size));
+            };
+            geofences.add(createGeofence(i, geometry));
+        }
+        geofences.add(createGeofence(1000, new GeofencePolygon("POLYGON ((-1 179, 1 179, 1 -179, -1 -179))")));
+
+        GeofenceIndex index = new GeofenceIndex(config, geofences);
+        for (int i = 0; i < 1000; i++) {
+            double lat = random.nextDouble() * 12 - 6;
+            double lon = random.nextDouble() * 12 - 6;
+            List<Long> expected = new ArrayList<>();
+            for (Geofence geofence : geofences) {
+                if (geofence.getGeometry().containsPoint(config, geofence, lat, lon)) {
+                    expected.add(geofence.getId());
+                }
+            }
+            assertEquals(new HashSet<>(expected), new HashSet<>(index.getGeofenceIds(config, lat, lon)));
+        }
+        assertEquals(List.of(1000L), index.getGeofenceIds(config, 0, 180));
+    }
+
+    @Test
+    public void testGreenwich() throws ParseException {
+        Config config = mock(Config.class);
+        GeofencePolygon polygon = new GeofencePolygon("POLYGON ((-1 -1, 1 -1, 1 1, -1 1))");
+        assertArrayEquals(new double[] {-1, -1, 1, 1}, polygon.getBounds(config, null));
+
+        GeofenceIndex index = new GeofenceIndex(config, List.of(createGeofence(1, polygon)));
+        assertEquals(List.of(1L), index.getGeofenceIds(config, 0, 0));
+        assertEquals(List.of(1L), index.getGeofenceIds(config, 0.5, -0.5));
+        assertEquals(List.of(1L), index.getGeofenceIds(config, -0.5, 0.5));
+        assertTrue(index.getGeofenceIds(config, 0, 2).isEmpty());
+        assertTrue(index.getGeofenceIds(config, 0, -2).isEmpty());
+    }
+
+}
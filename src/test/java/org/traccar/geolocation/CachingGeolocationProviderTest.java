@@ -0,0 +1,77 @@
+package org.traccar.geolocation;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.CellTower;
+import org.traccar.model.Network;
+import org.traccar.model.WifiAccessPoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingGeolocationProviderTest {
+
+    @Test
+    public void testSharedNetwork() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.GEOLOCATION_CACHE_SIZE)).thenReturn(100);
+        GeolocationProvider delegate = mock(GeolocationProvider.class);
+        doAnswer(invocation -> {
+            GeolocationProvider.LocationProviderCallback callback = invocation.getArgument(1);
+            callback.onSuccess(10, 20, 100);
+            return null;
+        }).when(delegate).getLocation(any(), any());
+
+        var provider = new CachingGeolocationProvider(config, delegate);
+
+        Network first = new Network(CellTower.from(250, 1, 100, 1000, -60), CellTower.from(250, 1, 100, 1001, -70));
+        first.addWifiAccessPoint(WifiAccessPoint.from("AA-BB-CC-DD-EE-FF", -50));
+        Network second = new Network(CellTower.from(250, 1, 100, 1001, -80), CellTower.from(250, 1, 100, 1000, -90));
+        second.addWifiAccessPoint(WifiAccessPoint.from("aa:bb:cc:dd:ee:ff", -40));
+
+        var callback = mock(GeolocationProvider.LocationProviderCallback.class);
+        provider.getLocation(first, callback);
+        provider.getLocation(second, callback);
+        provider.getLocation(new Network(CellTower.from(250, 1, 100, 1002)), callback);
+
+        verify(delegate, times(2)).getLocation(any(), any());
+        verify(callback, times(3)).onSuccess(10, 20, 100);
+        assertEquals(1, provider.getStatistics().hits());
+    }
+
+    @Test
+    public void testRadioType() {
+        Config config = mock(Config.class);
+        when(config.getInteger(Keys.GEOLOCATION_CACHE_SIZE)).thenReturn(100);
+        GeolocationProvider delegate = mock(GeolocationProvider.class);
+        doAnswer(invocation -> {
+            GeolocationProvider.LocationProviderCallback callback = invocation.getArgument(1);
+            callback.onSuccess(10, 20, 100);
+            return null;
+        }).when(delegate).getLocation(any(), any());
+
+        var provider = new CachingGeolocationProvider(config, delegate);
+
+        CellTower gsm = CellTower.from(250, 1, 100, 1000);
+        gsm.setRadioType("gsm");
+        CellTower lte = CellTower.from(250, 1, 100, 1000);
+        lte.setRadioType("lte");
+        Network network = new Network(CellTower.from(250, 1, 100, 1000));
+        network.setRadioType("gsm");
+
+        var callback = mock(GeolocationProvider.LocationProviderCallback.class);
+        provider.getLocation(new Network(gsm), callback);
+        provider.getLocation(new Network(lte), callback);
+        provider.getLocation(network, callback);
+
+        verify(delegate, times(2)).getLocation(any(), any());
+        assertEquals(1, provider.getStatistics().hits());
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.traccar.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.database.BufferingManager;
+import org.traccar.model.Position;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BufferingManagerTest {
+
+    private static final long THRESHOLD = 50;
+
+    private final Timer timer = mock(Timer.class);
+    private final ChannelHandlerContext context = mock(ChannelHandlerContext.class);
+    private final List<Position> released = new ArrayList<>();
+    private BufferingManager bufferingManager;
+
+    @BeforeEach
+    public void setUp() {
+        var config = new Config();
+        config.setString(Keys.SERVER_BUFFERING_THRESHOLD, String.valueOf(THRESHOLD));
+        bufferingManager = new BufferingManager(config, timer, (context, position) -> {
+            assertSame(this.context, context);
+            released.add(position);
+        });
+    }
+
+    private Position createPosition(long deviceId, long time) {
+        Position position = new Position();
+        position.setDeviceId(deviceId);
+        position.setTime(new Date(time));
+        position.setServerTime(new Date(0));
+        return position;
+    }
+
+    private TimerTask captureTask(int count) {
+        ArgumentCaptor<TimerTask> captor = ArgumentCaptor.forClass(TimerTask.class);
+        verify(timer, times(count)).newTimeout(captor.capture(), anyLong(), any(TimeUnit.class));
+        return captor.getValue();
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        var third = createPosition(1, 3000);
+        var first = createPosition(1, 1000);
+        var second = createPosition(1, 2000);
+        bufferingManager.accept(context, third);
+        bufferingManager.accept(context, first);
+        bufferingManager.accept(context, second);
+
+        captureTask(1).run(null);
+        assertTrue(released.isEmpty());
+
+        Thread.sleep(THRESHOLD * 2);
+        captureTask(2).run(null);
+        assertEquals(List.of(first, second, third), released);
+    }
+
+    @Test
+    public void testSameTime() throws Exception {
+        var first = createPosition(1, 1000);
+        var second = createPosition(1, 1000);
+        var third = createPosition(1, 1000);
+        bufferingManager.accept(context, first);
+        bufferingManager.accept(context, second);
+        bufferingManager.accept(context, third);
+
+        Thread.sleep(THRESHOLD * 2);
+        captureTask(1).run(null);
+        assertEquals(List.of(first, second, third), released);
+    }
+
+    @Test
+    public void testTimerStops() throws Exception {
+        bufferingManager.accept(context, createPosition(1, 1000));
+        bufferingManager.accept(context, createPosition(2, 1000));
+        captureTask(2);
+
+        Thread.sleep(THRESHOLD * 2);
+        captureTask(2).run(null);
+        assertEquals(1, released.size());
+        captureTask(2);
+
+        bufferingManager.accept(context, createPosition(1, 2000));
+        captureTask(2);
+        bufferingManager.accept(context, createPosition(2, 2000));
+        captureTask(3);
+    }
+
+}
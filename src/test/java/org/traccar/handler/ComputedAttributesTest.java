@@ -5,9 +5,19 @@ import org.traccar.config.Config;
 import org.traccar.model.Attribute;
 import org.traccar.model.Position;
 
+import org.traccar.session.cache.CacheManager;
+
 import java.util.Date;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class ComputedAttributesTest {
 
@@ -68,4 +78,47 @@ public class ComputedAttributesTest {
 
     }
 
+    @Test
+    public void testCompiledAttributes() {
+
+        Attribute invalid = new Attribute();
+        invalid.setId(1);
+        invalid.setAttribute("invalid");
+        invalid.setType("number");
+        invalid.setExpression("adc1 +");
+
+        Attribute valid = new Attribute();
+        valid.setId(2);
+        valid.setAttribute("scaled");
+        valid.setType("number");
+        valid.setExpression("adc1 * 2");
+
+        var cacheManager = mock(CacheManager.class);
+        when(cacheManager.getDeviceObjects(anyLong(), eq(Attribute.class))).thenReturn(Set.of(invalid, valid));
+        when(cacheManager.getDeviceView(anyLong(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2, Supplier.class).get());
+
+        ComputedAttributesHandler handler = new ComputedAttributesHandler(new Config(), cacheManager, false);
+
+        Position position = new Position();
+        position.set("adc1", 10);
+        handler.onPosition(position, filtered -> {});
+        assertEquals(20, position.getInteger("scaled"));
+        assertFalse(position.hasAttribute("invalid"));
+
+        valid.setExpression("adc1 * 3");
+        handler.onPosition(position, filtered -> {});
+        assertEquals(30, position.getInteger("scaled"));
+
+        Attribute replaced = new Attribute();
+        replaced.setId(2);
+        replaced.setAttribute("scaled");
+        replaced.setType("number");
+        replaced.setExpression("adc1 * 4");
+        when(cacheManager.getDeviceObjects(anyLong(), eq(Attribute.class))).thenReturn(Set.of(invalid, replaced));
+        handler.onPosition(position, filtered -> {});
+        assertEquals(40, position.getInteger("scaled"));
+
+    }
+
 }
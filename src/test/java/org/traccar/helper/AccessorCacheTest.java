@@ -0,0 +1,109 @@
+package org.traccar.helper;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Device;
+import org.traccar.model.Position;
+import org.traccar.model.User;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessorCacheTest {
+
+    private static final class Hidden {
+
+        private long value;
+
+        public long getValue() {
+            return value;
+        }
+
+        public void setValue(long value) {
+            this.value = value;
+        }
+
+    }
+
+    @Test
+    public void testConstructor() {
+        Supplier<Device> constructor = AccessorCache.getConstructor(Device.class);
+        Device first = constructor.get();
+        Device second = constructor.get();
+        assertNotSame(first, second);
+        assertSame(constructor, AccessorCache.getConstructor(Device.class));
+    }
+
+    @Test
+    public void testPrimitiveAccessors() throws NoSuchMethodException {
+        Position position = new Position();
+
+        ObjLongConsumer<Object> setDeviceId = AccessorCache.getSetter(
+                Position.class.getMethod("setDeviceId", long.class));
+        setDeviceId.accept(position, 42);
+        ToLongFunction<Object> getDeviceId = AccessorCache.getGetter(Position.class.getMethod("getDeviceId"));
+        assertEquals(42, getDeviceId.applyAsLong(position));
+
+        ObjDoubleConsumer<Object> setLatitude = AccessorCache.getSetter(
+                Position.class.getMethod("setLatitude", double.class));
+        setLatitude.accept(position, 12.5);
+        ToDoubleFunction<Object> getLatitude = AccessorCache.getGetter(Position.class.getMethod("getLatitude"));
+        assertEquals(12.5, getLatitude.applyAsDouble(position));
+
+        AccessorCache.BooleanSetter setValid = AccessorCache.getSetter(
+                Position.class.getMethod("setValid", boolean.class));
+        setValid.accept(position, true);
+        Predicate<Object> getValid = AccessorCache.getGetter(Position.class.getMethod("getValid"));
+        assertTrue(getValid.test(position));
+
+        User user = new User();
+        ObjIntConsumer<Object> setZoom = AccessorCache.getSetter(User.class.getMethod("setZoom", int.class));
+        setZoom.accept(user, 7);
+        ToIntFunction<Object> getZoom = AccessorCache.getGetter(User.class.getMethod("getZoom"));
+        assertEquals(7, getZoom.applyAsInt(user));
+    }
+
+    @Test
+    public void testObjectAccessors() throws NoSuchMethodException {
+        Position position = new Position();
+        Date time = new Date();
+
+        BiConsumer<Object, Object> setFixTime = AccessorCache.getSetter(
+                Position.class.getMethod("setFixTime", Date.class));
+        setFixTime.accept(position, time);
+        Function<Object, Object> getFixTime = AccessorCache.getGetter(Position.class.getMethod("getFixTime"));
+        assertSame(time, getFixTime.apply(position));
+
+        Method method = Position.class.getMethod("getProtocol");
+        assertSame(AccessorCache.getGetter(method), AccessorCache.getGetter(method));
+    }
+
+    @Test
+    public void testNestedClass() throws NoSuchMethodException {
+        Method getter = Hidden.class.getMethod("getValue");
+        Method setter = Hidden.class.getMethod("setValue", long.class);
+        getter.setAccessible(true);
+        setter.setAccessible(true);
+
+        Hidden hidden = new Hidden();
+        ObjLongConsumer<Object> setValue = AccessorCache.getSetter(setter);
+        setValue.accept(hidden, 5);
+        ToLongFunction<Object> getValue = AccessorCache.getGetter(getter);
+        assertEquals(5, getValue.applyAsLong(hidden));
+    }
+
+}
@@ -0,0 +1,36 @@
+package org.traccar.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[] {0, 1, 7, 8, 15, 16, 17, 1000, 123456789L}) {
+            long lower = LatencyHistogram.lowerBound(LatencyHistogram.index(value));
+            assertTrue(lower <= value);
+            assertTrue(value - lower <= value / 8);
+        }
+    }
+
+    @Test
+    public void testSnapshot() {
+        var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        var snapshot = histogram.getSnapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(50500, snapshot.mean());
+        assertEquals(100000, snapshot.max());
+        assertTrue(Math.abs(snapshot.p50() - 50000) <= 50000 / 8);
+        assertTrue(Math.abs(snapshot.p99() - 99000) <= 99000 / 8);
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.traccar.helper.model;
+
+import io.netty.util.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.broadcast.BroadcastService;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.Device;
+import org.traccar.model.Group;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.Server;
+import org.traccar.session.cache.CacheManager;
+import org.traccar.storage.MemoryStorage;
+import org.traccar.storage.PermissionClosure;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+public class AttributeUtilTest {
+
+    private final Config config = new Config();
+    private MemoryStorage storage;
+    private CacheManager cacheManager;
+    private Device device;
+    private Group group;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storage = new MemoryStorage();
+        group = new Group();
+        group.setId(1);
+        storage.addObject(group, new Request(new Columns.All()));
+        device = new Device();
+        device.setId(1);
+        device.setGroupId(1);
+        storage.addObject(device, new Request(new Columns.All()));
+        cacheManager = new CacheManager(
+                config, storage, mock(BroadcastService.class), new PermissionClosure(() -> storage),
+                mock(Timer.class));
+        cacheManager.addDevice(1, 1L);
+    }
+
+    @Test
+    public void testDeviceValue() throws Exception {
+        device.set(Keys.EVENT_OVERSPEED_MINIMAL_DURATION.getKey(), "30");
+        assertEquals(30L, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_MINIMAL_DURATION, 1));
+
+        device.set(Keys.EVENT_OVERSPEED_MINIMAL_DURATION.getKey(), 45);
+        assertEquals(30L, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_MINIMAL_DURATION, 1));
+
+        cacheManager.invalidateObject(true, Device.class, 1, ObjectOperation.UPDATE);
+        assertEquals(45L, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_MINIMAL_DURATION, 1));
+    }
+
+    @Test
+    public void testGroupValue() throws Exception {
+        group.set(Keys.EVENT_OVERSPEED_MINIMAL_DURATION.getKey(), 10);
+        assertEquals(10L, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_MINIMAL_DURATION, 1));
+
+        group.set(Keys.EVENT_OVERSPEED_MINIMAL_DURATION.getKey(), 20);
+        cacheManager.invalidateObject(true, Group.class, 1, ObjectOperation.UPDATE);
+        assertEquals(20L, AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_MINIMAL_DURATION, 1));
+    }
+
+    @Test
+    public void testMissingValue() throws Exception {
+        assertNull(AttributeUtil.lookup(cacheManager, Keys.EVENT_OVERSPEED_MINIMAL_DURATION, 1));
+        assertEquals(3000L, AttributeUtil.lookup(cacheManager, Keys.SERVER_BUFFERING_THRESHOLD, 1));
+
+        config.setString(Keys.SERVER_BUFFERING_THRESHOLD, "500");
+        assertEquals(3000L, AttributeUtil.lookup(cacheManager, Keys.SERVER_BUFFERING_THRESHOLD, 1));
+
+        cacheManager.invalidateObject(true, Server.class, 1, ObjectOperation.UPDATE);
+        assertEquals(500L, AttributeUtil.lookup(cacheManager, Keys.SERVER_BUFFERING_THRESHOLD, 1));
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.traccar.session.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Geofence;
+import org.traccar.model.Group;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CacheGraphTest {
+
+    private CacheGraph graph;
+    private Group group;
+    private Geofence geofence;
+
+    private static <T extends BaseModel> T create(T object, long id) {
+        object.setId(id);
+        return object;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        graph = new CacheGraph();
+        group = create(new Group(), 1);
+        geofence = create(new Geofence(), 1);
+        graph.addObject(create(new Device(), 1));
+        graph.addObject(create(new Device(), 2));
+        graph.addLink(Device.class, 1, group);
+        graph.addLink(Group.class, 1, geofence);
+    }
+
+    @Test
+    public void testObjects() {
+        Set<Long> ids = graph.getObjects(Device.class, 1, Geofence.class, Set.of(Group.class), true)
+                .map(BaseModel::getId)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(1L), ids);
+        assertEquals(0, graph.getObjects(Device.class, 2, Geofence.class, Set.of(Group.class), true).count());
+    }
+
+    @Test
+    public void testViewsMissing() {
+        assertNull(graph.getDeviceViews(3));
+        assertNotNull(graph.getDeviceViews(1));
+    }
+
+    @Test
+    public void testViewsKept() {
+        var views = graph.getDeviceViews(1);
+        assertSame(views, graph.getDeviceViews(1));
+
+        graph.updateObject(create(new Device(), 2));
+        assertSame(views, graph.getDeviceViews(1));
+    }
+
+    @Test
+    public void testUpdateObject() {
+        var views = graph.getDeviceViews(1);
+        var other = graph.getDeviceViews(2);
+
+        graph.updateObject(create(new Geofence(), 1));
+        assertNotSame(views, graph.getDeviceViews(1));
+        assertSame(other, graph.getDeviceViews(2));
+    }
+
+    @Test
+    public void testAddLink() {
+        var views = graph.getDeviceViews(1);
+        var other = graph.getDeviceViews(2);
+
+        graph.addLink(Group.class, 1, create(new Geofence(), 2));
+        assertNotSame(views, graph.getDeviceViews(1));
+        assertSame(other, graph.getDeviceViews(2));
+    }
+
+    @Test
+    public void testRemoveLink() {
+        var views = graph.getDeviceViews(1);
+
+        graph.removeLink(Group.class, 1, Geofence.class, 1);
+        assertNotSame(views, graph.getDeviceViews(1));
+        assertEquals(0, graph.getObjects(Device.class, 1, Geofence.class, Set.of(Group.class), true).count());
+    }
+
+    @Test
+    public void testRemoveObject() {
+        var views = graph.getDeviceViews(1);
+        var other = graph.getDeviceViews(2);
+
+        graph.removeObject(Geofence.class, 1);
+        assertNotSame(views, graph.getDeviceViews(1));
+        assertSame(other, graph.getDeviceViews(2));
+
+        graph.removeObject(Device.class, 1);
+        assertNull(graph.getDeviceViews(1));
+    }
+
+    @Test
+    public void testClearViews() {
+        var views = graph.getDeviceViews(1);
+        var other = graph.getDeviceViews(2);
+
+        graph.clearDeviceViews();
+        assertNotSame(views, graph.getDeviceViews(1));
+        assertNotSame(other, graph.getDeviceViews(2));
+    }
+
+}
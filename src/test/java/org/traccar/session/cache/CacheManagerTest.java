@@ -0,0 +1,260 @@
+package org.traccar.session.cache;
+
+import io.netty.util.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.broadcast.BroadcastService;
+import org.traccar.config.Config;
+import org.traccar.config.Keys;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Geofence;
+import org.traccar.model.ObjectOperation;
+import org.traccar.model.Permission;
+import org.traccar.storage.MemoryStorage;
+import org.traccar.storage.PermissionClosure;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class CacheManagerTest {
+
+    private static class BlockingStorage extends MemoryStorage {
+
+        private volatile CountDownLatch started;
+        private volatile CountDownLatch released;
+
+        @Override
+        public List<Permission> getPermissions(
+                Class<? extends BaseModel> ownerClass, long ownerId,
+                Class<? extends BaseModel> propertyClass, long propertyId) {
+            var result = super.getPermissions(ownerClass, ownerId, propertyClass, propertyId);
+            if (started != null && ownerClass.equals(Device.class) && propertyClass.equals(Geofence.class)) {
+                started.countDown();
+                try {
+                    released.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return result;
+        }
+
+    }
+
+    private final Config config = new Config();
+    private final Timer timer = mock(Timer.class);
+    private BlockingStorage storage;
+
+    @BeforeEach
+    public void setUp() {
+        storage = new BlockingStorage();
+    }
+
+    private CacheManager createCacheManager() throws Exception {
+        return new CacheManager(
+                config, storage, mock(BroadcastService.class), new PermissionClosure(() -> storage), timer);
+    }
+
+    private void addDevice(long id) {
+        Device device = new Device();
+        device.setId(id);
+        storage.addObject(device, new Request(new Columns.All()));
+    }
+
+    private void addGeofence(long id) {
+        Geofence geofence = new Geofence();
+        geofence.setId(id);
+        storage.addObject(geofence, new Request(new Columns.All()));
+    }
+
+    @Test
+    public void testReferences() throws Exception {
+        addDevice(1);
+        var cacheManager = createCacheManager();
+        Object first = new Object();
+        Object second = new Object();
+
+        cacheManager.addDevice(1, first);
+        cacheManager.addDevice(1, second);
+        assertNotNull(cacheManager.getObject(Device.class, 1));
+
+        cacheManager.removeDevice(1, first);
+        assertNotNull(cacheManager.getObject(Device.class, 1));
+
+        cacheManager.removeDevice(1, second);
+        assertNull(cacheManager.getObject(Device.class, 1));
+    }
+
+    @Test
+    public void testPermission() throws Exception {
+        addDevice(1);
+        addGeofence(1);
+        var cacheManager = createCacheManager();
+        cacheManager.addDevice(1, 1L);
+        assertTrue(cacheManager.getDeviceObjects(1, Geofence.class).isEmpty());
+
+        var permission = new Permission(Device.class, 1, Geofence.class, 1);
+        storage.addPermission(permission);
+        cacheManager.invalidatePermission(true, Device.class, 1, Geofence.class, 1, true);
+        assertEquals(1, cacheManager.getDeviceObjects(1, Geofence.class).size());
+
+        storage.removePermission(permission);
+        cacheManager.invalidatePermission(true, Device.class, 1, Geofence.class, 1, false);
+        assertTrue(cacheManager.getDeviceObjects(1, Geofence.class).isEmpty());
+    }
+
+    @Test
+    public void testDeviceObjects() throws Exception {
+        addDevice(1);
+        addGeofence(1);
+        var cacheManager = createCacheManager();
+        cacheManager.addDevice(1, 1L);
+
+        var geofences = cacheManager.getDeviceObjects(1, Geofence.class);
+        assertTrue(geofences.isEmpty());
+        assertSame(geofences, cacheManager.getDeviceObjects(1, Geofence.class));
+
+        storage.addPermission(new Permission(Device.class, 1, Geofence.class, 1));
+        cacheManager.invalidatePermission(true, Device.class, 1, Geofence.class, 1, true);
+        assertEquals(1, cacheManager.getDeviceObjects(1, Geofence.class).size());
+    }
+
+    @Test
+    public void testDeviceView() throws Exception {
+        addDevice(1);
+        addGeofence(1);
+        var cacheManager = createCacheManager();
+        AtomicInteger counter = new AtomicInteger();
+        Supplier<Integer> supplier = () -> cacheManager.getDeviceObjects(1, Geofence.class).size()
+                + 10 * counter.incrementAndGet();
+
+        assertEquals(10, cacheManager.getDeviceView(1, "view", supplier));
+        assertEquals(20, cacheManager.getDeviceView(1, "view", supplier));
+
+        cacheManager.addDevice(1, 1L);
+        assertEquals(30, cacheManager.getDeviceView(1, "view", supplier));
+        assertEquals(30, cacheManager.getDeviceView(1, "view", supplier));
+
+        storage.addPermission(new Permission(Device.class, 1, Geofence.class, 1));
+        cacheManager.invalidatePermission(true, Device.class, 1, Geofence.class, 1, true);
+        assertEquals(41, cacheManager.getDeviceView(1, "view", supplier));
+        assertEquals(41, cacheManager.getDeviceView(1, "view", supplier));
+        assertEquals(1, cacheManager.getDeviceObjects(1, Geofence.class).size());
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        addDevice(1);
+        var cacheManager = createCacheManager();
+        cacheManager.addDevice(1, 1L);
+
+        cacheManager.invalidateObject(true, Device.class, 1, ObjectOperation.DELETE);
+        assertNull(cacheManager.getObject(Device.class, 1));
+    }
+
+    @Test
+    public void testLoadOutsideLock() throws Exception {
+        addDevice(1);
+        addDevice(2);
+        var cacheManager = createCacheManager();
+
+        storage.started = new CountDownLatch(1);
+        storage.released = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> loading = executor.submit(() -> {
+                cacheManager.addDevice(1, 1L);
+                return null;
+            });
+            assertTrue(storage.started.await(5, TimeUnit.SECONDS));
+            storage.started = null;
+
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+                cacheManager.addDevice(2, 2L);
+                assertNotNull(cacheManager.getObject(Device.class, 2));
+                cacheManager.removeDevice(2, 2L);
+                assertNull(cacheManager.getObject(Device.class, 1));
+            });
+
+            storage.released.countDown();
+            loading.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertNotNull(cacheManager.getObject(Device.class, 1));
+    }
+
+    @Test
+    public void testStaleLoadRepeated() throws Exception {
+        addDevice(1);
+        addGeofence(1);
+        var cacheManager = createCacheManager();
+
+        storage.started = new CountDownLatch(1);
+        storage.released = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> loading = executor.submit(() -> {
+                cacheManager.addDevice(1, 1L);
+                return null;
+            });
+            assertTrue(storage.started.await(5, TimeUnit.SECONDS));
+            storage.started = null;
+
+            storage.addPermission(new Permission(Device.class, 1, Geofence.class, 1));
+            cacheManager.invalidatePermission(true, Device.class, 1, Geofence.class, 1, true);
+
+            storage.released.countDown();
+            loading.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, cacheManager.getDeviceObjects(1, Geofence.class).size());
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        config.setString(Keys.SERVER_CACHE_WARM_UP, "true");
+        addDevice(1);
+        addDevice(2);
+        var cacheManager = createCacheManager();
+
+        cacheManager.start();
+        assertNotNull(cacheManager.getObject(Device.class, 1));
+        assertNotNull(cacheManager.getObject(Device.class, 2));
+        verify(timer).newTimeout(any(), anyLong(), eq(TimeUnit.SECONDS));
+
+        cacheManager.addDevice(1, 1L);
+        cacheManager.removeDevice(1, 1L);
+        assertNull(cacheManager.getObject(Device.class, 1));
+        assertNotNull(cacheManager.getObject(Device.class, 2));
+
+        cacheManager.releaseWarmUp();
+        assertNull(cacheManager.getObject(Device.class, 2));
+    }
+
+}
@@ -0,0 +1,128 @@
+package org.traccar.speedlimit;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.client.AsyncInvoker;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.Invocation;
+import jakarta.ws.rs.client.InvocationCallback;
+import jakarta.ws.rs.client.WebTarget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.traccar.config.Config;
+import org.traccar.helper.UnitsConverter;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OverpassTileSpeedLimitProviderTest {
+
+    private static final String RESPONSE = """
+            {"elements": [
+              {"tags": {"maxspeed": "50"}, "geometry": [
+                {"lat": 50.005, "lon": 10.0}, {"lat": 50.005, "lon": 10.01}, {"lat": 50.005, "lon": 10.03}]},
+              {"tags": {"maxspeed": "30 mph"}, "geometry": [
+                {"lat": 50.0, "lon": 10.02}, {"lat": 50.02, "lon": 10.02}]},
+              {"tags": {"maxspeed": "signals"}, "geometry": [
+                {"lat": 50.015, "lon": 10.0}, {"lat": 50.015, "lon": 10.03}]},
+              {"tags": {"maxspeed": "70"}}
+            ]}""";
+
+    private final Client client = mock(Client.class);
+    private final AsyncInvoker invoker = mock(AsyncInvoker.class);
+    private OverpassTileSpeedLimitProvider provider;
+
+    @BeforeEach
+    public void setUp() {
+        WebTarget target = mock(WebTarget.class);
+        Invocation.Builder builder = mock(Invocation.Builder.class);
+        when(client.target(anyString())).thenReturn(target);
+        when(target.request()).thenReturn(builder);
+        when(builder.async()).thenReturn(invoker);
+        provider = new OverpassTileSpeedLimitProvider(new Config(), client, "http://localhost/api/interpreter");
+    }
+
+    private static JsonObject parse(String json) {
+        try (var reader = Json.createReader(new StringReader(json))) {
+            return reader.readObject();
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private InvocationCallback<JsonObject> captureRequest(int count) {
+        ArgumentCaptor<InvocationCallback> captor = ArgumentCaptor.forClass(InvocationCallback.class);
+        verify(invoker, times(count)).get(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    public void testParseTile() {
+        var tile = provider.parseTile(50, 10, 50.02, 10.03, parse(RESPONSE));
+
+        assertEquals(UnitsConverter.knotsFromKph(50), tile.getSpeedLimit(50.0051, 10.005), 0.1);
+        assertEquals(UnitsConverter.knotsFromMph(30), tile.getSpeedLimit(50.015, 10.0201), 0.1);
+        assertNull(tile.getSpeedLimit(50.015, 10.01));
+    }
+
+    @Test
+    public void testPendingRequests() {
+        var first = mock(SpeedLimitProvider.SpeedLimitProviderCallback.class);
+        var second = mock(SpeedLimitProvider.SpeedLimitProviderCallback.class);
+        provider.getSpeedLimit(50.0051, 10.005, first);
+        provider.getSpeedLimit(50.0052, 10.006, second);
+        verify(client, times(1)).target(anyString());
+
+        captureRequest(1).completed(parse(RESPONSE));
+        verify(first).onSuccess(UnitsConverter.knotsFromKph(50));
+        verify(second).onSuccess(UnitsConverter.knotsFromKph(50));
+
+        var third = mock(SpeedLimitProvider.SpeedLimitProviderCallback.class);
+        provider.getSpeedLimit(50.0051, 10.005, third);
+        verify(third).onSuccess(UnitsConverter.knotsFromKph(50));
+        verify(client, times(1)).target(anyString());
+    }
+
+    @Test
+    public void testFailedTile() {
+        var first = mock(SpeedLimitProvider.SpeedLimitProviderCallback.class);
+        var second = mock(SpeedLimitProvider.SpeedLimitProviderCallback.class);
+        provider.getSpeedLimit(50.0051, 10.005, first);
+        provider.getSpeedLimit(50.0052, 10.006, second);
+
+        var error = new RuntimeException("failure");
+        captureRequest(1).failed(error);
+        verify(first).onFailure(error);
+        verify(second).onFailure(error);
+
+        var third = mock(SpeedLimitProvider.SpeedLimitProviderCallback.class);
+        provider.getSpeedLimit(50.0051, 10.005, third);
+        verify(third).onFailure(error);
+        verify(third, never()).onSuccess(anyDouble());
+        verify(client, times(1)).target(anyString());
+    }
+
+    @Test
+    public void testSynchronousFailure() {
+        var error = new IllegalStateException("failure");
+        when(client.target(anyString())).thenThrow(error);
+
+        var callback = mock(SpeedLimitProvider.SpeedLimitProviderCallback.class);
+        provider.getSpeedLimit(50.0051, 10.005, callback);
+        verify(callback).onFailure(error);
+
+        provider.getSpeedLimit(50.0051, 10.005, callback);
+        verify(callback, times(2)).onFailure(error);
+        verify(client, times(1)).target(anyString());
+    }
+
+}
@@ -0,0 +1,25 @@
+package org.traccar.speedlimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SpeedLimitTileTest {
+
+    @Test
+    public void testNearestSegment() {
+        var tile = new SpeedLimitTile(50, 10, 50.02, 10.03, List.of(
+                new SpeedLimitTile.Segment(50.005, 10.0, 50.005, 10.03, 30),
+                new SpeedLimitTile.Segment(50.0058, 10.0, 50.0058, 10.03, 50),
+                new SpeedLimitTile.Segment(50.0, 10.02, 50.02, 10.02, 70)), 50);
+
+        assertEquals(30, tile.getSpeedLimit(50.0051, 10.01), 0.1);
+        assertEquals(50, tile.getSpeedLimit(50.0057, 10.01), 0.1);
+        assertEquals(70, tile.getSpeedLimit(50.015, 10.0201), 0.1);
+        assertNull(tile.getSpeedLimit(50.015, 10.01));
+    }
+
+}
@@ -0,0 +1,259 @@
+package org.traccar.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.mockito.stubbing.Answer;
+import org.traccar.config.Config;
+import org.traccar.model.Device;
+import org.traccar.model.Permission;
+import org.traccar.model.User;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Order;
+import org.traccar.storage.query.Request;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DatabaseStorageTest {
+
+    private final List<String> queries = new ArrayList<>();
+    private final List<PreparedStatement> statements = new ArrayList<>();
+    private final MemoryStorage permissionStorage = new MemoryStorage();
+    private DatabaseStorage storage;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        var connection = mock(Connection.class);
+        var metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        when(connection.getMetaData()).thenReturn(metaData);
+        Answer<PreparedStatement> prepare = invocation -> {
+            var resultSet = mock(ResultSet.class);
+            when(resultSet.getMetaData()).thenReturn(mock(ResultSetMetaData.class));
+            var statement = mock(PreparedStatement.class);
+            when(statement.executeQuery()).thenReturn(resultSet);
+            when(statement.getGeneratedKeys()).thenReturn(resultSet);
+            queries.add(invocation.getArgument(0));
+            statements.add(statement);
+            return statement;
+        };
+        when(connection.prepareStatement(anyString())).thenAnswer(prepare);
+        when(connection.prepareStatement(anyString(), anyInt())).thenAnswer(prepare);
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        storage = new DatabaseStorage(
+                new Config(), dataSource, new ObjectMapper(), new PermissionClosure(() -> permissionStorage));
+    }
+
+    @Test
+    public void testQueryShape() throws Exception {
+        storage.getObjects(Device.class, new Request(new Columns.All(), new Condition.Equals("id", 1L)));
+        storage.getObjects(Device.class, new Request(new Columns.All(), new Condition.Equals("id", 2L)));
+
+        assertEquals(2, queries.size());
+        assertSame(queries.get(0), queries.get(1));
+        verify(statements.get(0)).setLong(1, 1L);
+        verify(statements.get(1)).setLong(1, 2L);
+    }
+
+    @Test
+    public void testColumnsShape() throws Exception {
+        var condition = new Condition.Equals("id", 1L);
+        storage.getObjects(Device.class, new Request(new Columns.Include("name"), condition));
+        storage.getObjects(Device.class, new Request(new Columns.Include("uniqueId"), condition));
+        storage.getObjects(Device.class, new Request(new Columns.Include("uniqueId"), condition));
+
+        assertEquals("SELECT name FROM tc_devices WHERE id = ?", queries.get(0));
+        assertEquals("SELECT uniqueId FROM tc_devices WHERE id = ?", queries.get(1));
+        assertSame(queries.get(1), queries.get(2));
+    }
+
+    @Test
+    public void testConditionShape() throws Exception {
+        storage.getObjects(Device.class, new Request(new Columns.All(), new Condition.Equals("id", 1L)));
+        storage.getObjects(Device.class, new Request(new Columns.All(), new Condition.Equals("groupId", 1L)));
+        storage.getObjects(Device.class, new Request(
+                new Columns.All(),
+                new Condition.And(new Condition.Equals("id", 1L), new Condition.Equals("disabled", false))));
+        storage.getObjects(Device.class, new Request(
+                new Columns.All(),
+                new Condition.Or(new Condition.Equals("id", 1L), new Condition.Equals("disabled", false))));
+
+        assertEquals(4, queries.stream().distinct().count());
+        assertTrue(queries.get(2).endsWith("WHERE id = ? AND disabled = ?"));
+        assertTrue(queries.get(3).endsWith("WHERE id = ? OR disabled = ?"));
+    }
+
+    @Test
+    public void testOrderShape() throws Exception {
+        var condition = new Condition.Equals("id", 1L);
+        storage.getObjects(Device.class, new Request(new Columns.All(), condition, new Order("name")));
+        storage.getObjects(Device.class, new Request(new Columns.All(), condition, new Order("name", true, 10)));
+        storage.getObjects(Device.class, new Request(new Columns.All(), condition, new Order("name", true, 20)));
+
+        assertTrue(queries.get(0).endsWith("ORDER BY name"));
+        assertTrue(queries.get(1).endsWith("ORDER BY name DESC LIMIT 10"));
+        assertTrue(queries.get(2).endsWith("ORDER BY name DESC LIMIT 20"));
+    }
+
+    @Test
+    public void testInsertShape() throws Exception {
+        var device = new Device();
+        device.setName("test");
+        storage.addObject(device, new Request(new Columns.Exclude("id")));
+        storage.addObject(device, new Request(new Columns.Exclude("id")));
+        storage.addObject(device, new Request(new Columns.Include("name")));
+
+        assertSame(queries.get(0), queries.get(1));
+        assertNotEquals(queries.get(0), queries.get(2));
+        assertEquals("INSERT INTO tc_devices(name) VALUES (?)", queries.get(2));
+    }
+
+    private List<Object> getBoundValues(PreparedStatement statement) {
+        List<Object> values = new ArrayList<>();
+        for (Invocation invocation : mockingDetails(statement).getInvocations()) {
+            if (invocation.getMethod().getName().equals("setLong")) {
+                values.add(invocation.getArgument(1));
+            }
+        }
+        return values;
+    }
+
+    private static int count(String text, String fragment) {
+        int count = 0;
+        for (int index = text.indexOf(fragment); index >= 0; index = text.indexOf(fragment, index + 1)) {
+            count += 1;
+        }
+        return count;
+    }
+
+    @Test
+    public void testInPadding() throws Exception {
+        int[][] cases = {
+                {1, 1}, {2, 2}, {3, 4}, {5, 8}, {300, 512}, {511, 512}, {512, 512},
+                {513, 513}, {514, 514}, {515, 516}, {1024, 1024}, {1025, 1025}, {1537, 1537}, {1539, 1540}};
+        for (int[] testCase : cases) {
+            int size = testCase[0];
+            int padded = testCase[1];
+            List<Long> ids = LongStream.rangeClosed(1, size).boxed().toList();
+            queries.clear();
+            statements.clear();
+            storage.getObjects(Device.class, new Request(new Columns.All(), new Condition.In("id", ids)));
+
+            String query = queries.get(0);
+            assertEquals(padded, count(query, "?"), "parameters for " + size);
+            assertEquals((padded + 511) / 512, count(query, "id IN ("), "chunks for " + size);
+
+            List<Object> values = getBoundValues(statements.get(0));
+            assertEquals(padded, values.size());
+            assertEquals(ids, values.subList(0, size));
+            for (Object value : values.subList(size, padded)) {
+                assertEquals((long) size, value);
+            }
+        }
+    }
+
+    @Test
+    public void testInChunks() throws Exception {
+        storage.getObjects(Device.class, new Request(
+                new Columns.All(),
+                new Condition.In("id", LongStream.rangeClosed(1, 513).boxed().toList())));
+        String query = queries.get(0);
+        assertTrue(query.startsWith("SELECT * FROM tc_devices WHERE (id IN (?"));
+        assertTrue(query.endsWith("?) OR id IN (?))"));
+        assertEquals(512, count(query.substring(0, query.indexOf(" OR ")), "?"));
+    }
+
+    @Test
+    public void testInEmpty() throws Exception {
+        storage.getObjects(Device.class, new Request(new Columns.All(), new Condition.And(
+                new Condition.In("id", List.of()), new Condition.Equals("disabled", false))));
+        assertEquals("SELECT * FROM tc_devices WHERE 1 = 0 AND disabled = ?", queries.get(0));
+    }
+
+    @Test
+    public void testInShape() throws Exception {
+        for (var ids : List.of(List.of(1L, 2L, 3L), List.of(4L, 5L, 6L, 7L), List.of(8L, 9L, 10L, 11L, 12L))) {
+            storage.getObjects(Device.class, new Request(new Columns.All(), new Condition.In("id", ids)));
+        }
+
+        assertSame(queries.get(0), queries.get(1));
+        assertNotEquals(queries.get(1), queries.get(2));
+        assertEquals(List.of(1L, 2L, 3L, 3L), getBoundValues(statements.get(0)));
+    }
+
+    private void addDevicePermissions(long userId, int count) {
+        for (long deviceId = 1; deviceId <= count; deviceId++) {
+            permissionStorage.addPermission(new Permission(User.class, userId, Device.class, deviceId));
+        }
+    }
+
+    @Test
+    public void testPermissionClosure() throws Exception {
+        addDevicePermissions(1, 3);
+        storage.getObjects(Device.class, new Request(
+                new Columns.All(), new Condition.Permission(User.class, 1, Device.class), new Order("name")));
+
+        assertEquals(1, queries.size());
+        assertEquals("SELECT * FROM tc_devices WHERE (id IN (?, ?, ?, ?)) ORDER BY name", queries.get(0));
+        assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(getBoundValues(statements.get(0))));
+    }
+
+    @Test
+    public void testPermissionClosureEmpty() throws Exception {
+        storage.getObjects(Device.class, new Request(
+                new Columns.All(), new Condition.Permission(User.class, 1, Device.class)));
+        assertEquals("SELECT * FROM tc_devices WHERE 1 = 0", queries.get(0));
+    }
+
+    @Test
+    public void testPermissionClosureLarge() throws Exception {
+        addDevicePermissions(1, 2000);
+        storage.getObjects(Device.class, new Request(
+                new Columns.All(),
+                new Condition.And(
+                        new Condition.Permission(User.class, 1, Device.class),
+                        new Condition.Equals("disabled", false)),
+                new Order("name")));
+
+        assertEquals(1, queries.size());
+        String query = queries.get(0);
+        assertTrue(query.endsWith("AND disabled = ? ORDER BY name"));
+        assertFalse(query.contains("tc_user_device"));
+        assertEquals(4, count(query, "id IN ("));
+        List<Object> values = getBoundValues(statements.get(0));
+        assertEquals(4 * 512, values.size());
+        assertEquals(2000, Set.copyOf(values).size());
+    }
+
+    @Test
+    public void testOtherPermissions() throws Exception {
+        storage.getObjects(Device.class, new Request(
+                new Columns.All(), new Condition.Permission(User.class, 1, Device.class).excludeGroups()));
+        assertTrue(queries.get(0).contains("SELECT tc_user_device.deviceId FROM tc_user_device"));
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.traccar.storage;
+
+import org.junit.jupiter.api.Test;
+import org.traccar.model.Device;
+import org.traccar.model.Permission;
+import org.traccar.model.User;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Condition;
+import org.traccar.storage.query.Request;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoryStorageTest {
+
+    private MemoryStorage createStorage(int count) {
+        var storage = new MemoryStorage();
+        for (int i = 0; i < count; i++) {
+            Device device = new Device();
+            device.setDisabled(i % 2 == 1);
+            device.setId(storage.addObject(device, new Request(new Columns.Exclude("id"))));
+        }
+        return storage;
+    }
+
+    private Set<Long> getIds(Storage storage, Condition condition) throws StorageException {
+        return storage.getObjects(Device.class, new Request(new Columns.All(), condition)).stream()
+                .map(Device::getId)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testIn() throws Exception {
+        var storage = createStorage(1100);
+        for (int size : new int[] {1, 3, 511, 512, 513, 1024, 1025}) {
+            Set<Long> ids = LongStream.rangeClosed(1, size).boxed().collect(Collectors.toSet());
+            assertEquals(ids, getIds(storage, new Condition.In("id", ids)), "size " + size);
+        }
+    }
+
+    @Test
+    public void testInEmpty() throws Exception {
+        var storage = createStorage(10);
+        assertTrue(getIds(storage, new Condition.In("id", List.of())).isEmpty());
+    }
+
+    @Test
+    public void testInCombined() throws Exception {
+        var storage = createStorage(10);
+        assertEquals(Set.of(1L, 3L), getIds(storage, new Condition.And(
+                new Condition.In("id", List.of(1L, 2L, 3L, 4L, 20L)), new Condition.Equals("disabled", false))));
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 6L), getIds(storage, new Condition.Or(
+                new Condition.In("id", List.of(1L, 2L, 3L, 4L)), new Condition.Equals("id", 6L))));
+    }
+
+    @Test
+    public void testPermissionsBulk() throws Exception {
+        var storage = new MemoryStorage();
+        for (long userId = 1; userId <= 3; userId++) {
+            for (long deviceId = 1; deviceId <= 600; deviceId++) {
+                storage.addPermission(new Permission(User.class, userId, Device.class, deviceId));
+            }
+        }
+        var deviceIds = LongStream.rangeClosed(100, 612).boxed().toList();
+        var permissions = storage.getPermissions(User.class, List.of(1L, 3L), Device.class, deviceIds);
+        assertEquals(2 * 501, permissions.size());
+        for (Permission permission : permissions) {
+            assertTrue(permission.getOwnerId() != 2);
+            assertTrue(permission.getPropertyId() >= 100 && permission.getPropertyId() <= 600);
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package org.traccar.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.traccar.model.BaseModel;
+import org.traccar.model.Device;
+import org.traccar.model.Group;
+import org.traccar.model.Permission;
+import org.traccar.model.User;
+import org.traccar.storage.query.Columns;
+import org.traccar.storage.query.Request;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PermissionClosureTest {
+
+    private static class BlockingStorage extends MemoryStorage {
+
+        private volatile CountDownLatch started;
+        private volatile CountDownLatch released;
+
+        @Override
+        public List<Permission> getPermissions(
+                Class<? extends BaseModel> ownerClass, long ownerId,
+                Class<? extends BaseModel> propertyClass, long propertyId) {
+            var result = super.getPermissions(ownerClass, ownerId, propertyClass, propertyId);
+            if (started != null && propertyClass.equals(Group.class)) {
+                started.countDown();
+                try {
+                    released.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return result;
+        }
+
+    }
+
+    private BlockingStorage storage;
+    private PermissionClosure closure;
+
+    @BeforeEach
+    public void setUp() {
+        storage = new BlockingStorage();
+        closure = new PermissionClosure(() -> storage);
+    }
+
+    private void addGroup(long id, long parentId) {
+        Group group = new Group();
+        group.setId(id);
+        group.setGroupId(parentId);
+        storage.addObject(group, new Request(new Columns.All()));
+    }
+
+    private Device addDevice(long id, long groupId) {
+        Device device = new Device();
+        device.setId(id);
+        device.setGroupId(groupId);
+        storage.addObject(device, new Request(new Columns.All()));
+        return device;
+    }
+
+    private void link(Class<? extends BaseModel> propertyClass, long userId, long propertyId) {
+        storage.addPermission(new Permission(User.class, userId, propertyClass, propertyId));
+    }
+
+    @Test
+    public void testHierarchy() throws Exception {
+        addGroup(1, 0);
+        addGroup(2, 1);
+        addGroup(3, 2);
+        addGroup(4, 0);
+        addDevice(1, 1);
+        addDevice(2, 3);
+        addDevice(3, 4);
+        addDevice(4, 0);
+        link(Group.class, 1, 2);
+        link(Device.class, 1, 4);
+
+        assertEquals(Set.of(2L, 3L), closure.getObjectIds(1, Group.class));
+        assertEquals(Set.of(2L, 4L), closure.getObjectIds(1, Device.class));
+        assertTrue(closure.getObjectIds(2, Device.class).isEmpty());
+    }
+
+    @Test
+    public void testUpdateObject() throws Exception {
+        addGroup(1, 0);
+        addGroup(2, 0);
+        Device device = addDevice(1, 1);
+        link(Group.class, 1, 1);
+        assertEquals(Set.of(1L), closure.getObjectIds(1, Device.class));
+
+        device.setGroupId(2);
+        closure.updateObject(Device.class, 1, 2);
+        assertTrue(closure.getObjectIds(1, Device.class).isEmpty());
+
+        closure.updateObject(Group.class, 2, 1);
+        assertEquals(Set.of(1L, 2L), closure.getObjectIds(1, Group.class));
+        assertEquals(Set.of(1L), closure.getObjectIds(1, Device.class));
+    }
+
+    @Test
+    public void testUpdatePermission() throws Exception {
+        addGroup(1, 0);
+        addDevice(1, 1);
+        assertTrue(closure.getObjectIds(1, Device.class).isEmpty());
+
+        link(Group.class, 1, 1);
+        assertTrue(closure.getObjectIds(1, Device.class).isEmpty());
+        closure.updatePermission(User.class, 1, Group.class);
+        assertEquals(Set.of(1L), closure.getObjectIds(1, Device.class));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        addGroup(1, 0);
+        link(Group.class, 1, 1);
+        assertTrue(closure.getObjectIds(1, Device.class).isEmpty());
+
+        addDevice(1, 1);
+        closure.invalidate();
+        assertEquals(Set.of(1L), closure.getObjectIds(1, Device.class));
+    }
+
+    @Test
+    public void testLoadOutsideLock() throws Exception {
+        addGroup(1, 0);
+        addDevice(1, 1);
+        link(Group.class, 1, 1);
+        link(Group.class, 2, 1);
+        assertEquals(Set.of(1L), closure.getObjectIds(1, Device.class));
+
+        storage.started = new CountDownLatch(1);
+        storage.released = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Set<Long>> loading = executor.submit(() -> closure.getObjectIds(2, Device.class));
+            assertTrue(storage.started.await(5, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(
+                    Duration.ofSeconds(1), () -> assertEquals(Set.of(1L), closure.getObjectIds(1, Device.class)));
+            closure.updateObject(Device.class, 1, 0);
+
+            storage.released.countDown();
+            loading.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        storage.started = null;
+        assertTrue(closure.getObjectIds(2, Device.class).isEmpty());
+    }
+
+    @Test
+    public void testStaleResultNotCached() throws Exception {
+        addGroup(1, 0);
+        addDevice(1, 1);
+
+        storage.started = new CountDownLatch(1);
+        storage.released = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Set<Long>> loading = executor.submit(() -> closure.getObjectIds(1, Device.class));
+            assertTrue(storage.started.await(5, TimeUnit.SECONDS));
+
+            storage.started = null;
+            link(Group.class, 1, 1);
+            closure.updatePermission(User.class, 1, Group.class);
+
+            storage.released.countDown();
+            loading.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(Set.of(1L), closure.getObjectIds(1, Device.class));
+    }
+
+}
@@ -0,0 +1,30 @@
+package org.traccar.storage.query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ColumnsTest {
+
+    @Test
+    public void testEquals() {
+        assertEquals(new Columns.All(), new Columns.All());
+        assertEquals(new Columns.All().hashCode(), new Columns.All().hashCode());
+
+        assertEquals(new Columns.Include("id", "name"), new Columns.Include("id", "name"));
+        assertEquals(new Columns.Include("id", "name").hashCode(), new Columns.Include("id", "name").hashCode());
+        assertNotEquals(new Columns.Include("id", "name"), new Columns.Include("name", "id"));
+        assertNotEquals(new Columns.Include("id"), new Columns.Include("id", "name"));
+
+        assertEquals(new Columns.Exclude("id", "name"), new Columns.Exclude("name", "id"));
+        assertEquals(new Columns.Exclude("id", "name").hashCode(), new Columns.Exclude("name", "id").hashCode());
+        assertNotEquals(new Columns.Exclude("id"), new Columns.Exclude("name"));
+
+        assertNotEquals(new Columns.Include("id"), new Columns.Exclude("id"));
+        assertNotEquals(new Columns.Exclude("id"), new Columns.Include("id"));
+        assertNotEquals(new Columns.All(), new Columns.Include());
+        assertNotEquals(new Columns.All(), null);
+    }
+
+}